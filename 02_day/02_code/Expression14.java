@@ -0,0 +1,596 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Computer.calculator(a, c, b) from method1 grown into formulas: "price * qty - discount / 2" with
+// + - * / %, unary minus, parentheses, integer literals and variables. The text is parsed once into a
+// tree of Node objects (the operator is picked then, not on every evaluation), and the tree can run on
+// one set of values or on whole columns of values at a time. Arithmetic is Java long arithmetic:
+// overflow wraps, / and % truncate and throw ArithmeticException on division by zero.
+class Expression {
+    static final int CHUNK = 1024; // rows per step in evalBatch, the scratch columns stay in L1/L2
+
+    final String source;
+    final Node root;
+    final String[] variables; // in order of first appearance, this is the order eval() takes values in
+
+    Expression(String source, Node root, String[] variables) {
+        this.source = source;
+        this.root = root;
+        this.variables = variables;
+    }
+
+    static Expression compile(String source) {
+        return new Parser(source).parse();
+    }
+
+    // values in the order of variables()
+    long eval(long... values) {
+        if (values.length != variables.length) {
+            throw new IllegalArgumentException(source + " needs " + variables.length + " values " + Arrays.toString(variables) + ", got " + values.length);
+        }
+        return root.eval(values);
+    }
+
+    String[] variables() {
+        return variables.clone();
+    }
+
+    // out[i] = value of the expression with variable k set to columns[k][i]. Works a chunk of rows at a
+    // time: every node fills a whole column of results with one tight loop, so the per-node virtual call
+    // is paid once per CHUNK rows instead of once per row.
+    void evalBatch(long[][] columns, long[] out) {
+        if (columns.length != variables.length) {
+            throw new IllegalArgumentException(source + " needs " + variables.length + " columns " + Arrays.toString(variables) + ", got " + columns.length);
+        }
+        int n = out.length;
+        for (long[] column : columns) {
+            if (column.length < n) {
+                throw new IllegalArgumentException("column has " + column.length + " values, need " + n);
+            }
+        }
+        long[][] scratch = new long[root.columns + 1][CHUNK];
+        for (int from = 0; from < n; from += CHUNK) {
+            int len = Math.min(CHUNK, n - from);
+            root.eval(columns, from, len, scratch[0], scratch, 1);
+            System.arraycopy(scratch[0], 0, out, from, len);
+        }
+    }
+
+    // columns by variable name, extra entries are ignored
+    void evalBatch(Map<String, long[]> columns, long[] out) {
+        long[][] ordered = new long[variables.length][];
+        for (int k = 0; k < variables.length; k++) {
+            ordered[k] = columns.get(variables[k]);
+            if (ordered[k] == null) {
+                throw new IllegalArgumentException("no values for variable " + variables[k] + " in " + source);
+            }
+        }
+        evalBatch(ordered, out);
+    }
+
+    public String toString() {
+        return source;
+    }
+}
+
+abstract class Node {
+    final int depth; // longest path down to a leaf, eval() recurses this deep
+    final int columns; // scratch columns the batch eval needs below this node, see Chain
+
+    Node(int depth, int columns) {
+        this.depth = depth;
+        this.columns = columns;
+    }
+
+    abstract long eval(long[] vars);
+
+    // writes the results for rows from .. from+len into out[0 .. len); scratch[level ..] is free to use
+    abstract void eval(long[][] columns, int from, int len, long[] out, long[][] scratch, int level);
+}
+
+class Const extends Node {
+    final long value;
+
+    Const(long value) {
+        super(0, 0);
+        this.value = value;
+    }
+
+    long eval(long[] vars) {
+        return value;
+    }
+
+    void eval(long[][] columns, int from, int len, long[] out, long[][] scratch, int level) {
+        Arrays.fill(out, 0, len, value);
+    }
+}
+
+class Var extends Node {
+    final int slot;
+
+    Var(int slot) {
+        super(0, 0);
+        this.slot = slot;
+    }
+
+    long eval(long[] vars) {
+        return vars[slot];
+    }
+
+    void eval(long[][] columns, int from, int len, long[] out, long[][] scratch, int level) {
+        System.arraycopy(columns[slot], from, out, 0, len);
+    }
+}
+
+class Negate extends Node {
+    final Node operand;
+
+    Negate(Node operand) {
+        super(operand.depth + 1, operand.columns);
+        this.operand = operand;
+    }
+
+    long eval(long[] vars) {
+        return -operand.eval(vars);
+    }
+
+    void eval(long[][] columns, int from, int len, long[] out, long[][] scratch, int level) {
+        operand.eval(columns, from, len, out, scratch, level);
+        for (int i = 0; i < len; i++) {
+            out[i] = -out[i];
+        }
+    }
+}
+
+// a op1 b op2 c ... evaluated left to right, ((a op1 b) op2 c) ...: every run of + - or of * / % the
+// parser reads becomes one Chain, so a + b + c + ... is one node with a loop over its operands instead
+// of a left-leaning tree as deep as the formula is long. The batch eval writes the first operand straight
+// into out and needs one scratch column for each following operand while that operand's subtree runs,
+// so a chain needs only one column more than its widest operand however long it is.
+class Chain extends Node {
+    final Node first;
+    final Op[] ops;
+    final Node[] operands; // operands[k] is the right-hand side of ops[k]
+
+    Chain(Node first, Op[] ops, Node[] operands) {
+        super(1 + Math.max(first.depth, maxDepth(operands)), Math.max(first.columns, 1 + maxColumns(operands)));
+        this.first = first;
+        this.ops = ops;
+        this.operands = operands;
+    }
+
+    static int maxDepth(Node[] nodes) {
+        int max = 0;
+        for (Node n : nodes) {
+            max = Math.max(max, n.depth);
+        }
+        return max;
+    }
+
+    static int maxColumns(Node[] nodes) {
+        int max = 0;
+        for (Node n : nodes) {
+            max = Math.max(max, n.columns);
+        }
+        return max;
+    }
+
+    long eval(long[] vars) {
+        long v = first.eval(vars);
+        for (int k = 0; k < ops.length; k++) {
+            v = ops[k].apply(v, operands[k].eval(vars));
+        }
+        return v;
+    }
+
+    void eval(long[][] columns, int from, int len, long[] out, long[][] scratch, int level) {
+        first.eval(columns, from, len, out, scratch, level);
+        long[] r = scratch[level];
+        for (int k = 0; k < ops.length; k++) {
+            operands[k].eval(columns, from, len, r, scratch, level + 1);
+            ops[k].apply(out, r, len);
+        }
+    }
+}
+
+// one class per operator, so the JIT sees a fixed operation in each batch loop and there is no switch per row
+abstract class Op {
+    static final Op ADD = new Add(), SUB = new Sub(), MUL = new Mul(), DIV = new Div(), REM = new Rem();
+
+    abstract long apply(long a, long b);
+
+    // a[i] = a[i] op b[i]
+    abstract void apply(long[] a, long[] b, int len);
+
+    static Op of(char op) {
+        switch (op) {
+            case '+':
+                return ADD;
+            case '-':
+                return SUB;
+            case '*':
+                return MUL;
+            case '/':
+                return DIV;
+            case '%':
+                return REM;
+            default:
+                throw new IllegalArgumentException("unknown operator '" + op + "'");
+        }
+    }
+}
+
+class Add extends Op {
+    long apply(long a, long b) {
+        return a + b;
+    }
+
+    void apply(long[] a, long[] b, int len) {
+        for (int i = 0; i < len; i++) {
+            a[i] += b[i];
+        }
+    }
+}
+
+class Sub extends Op {
+    long apply(long a, long b) {
+        return a - b;
+    }
+
+    void apply(long[] a, long[] b, int len) {
+        for (int i = 0; i < len; i++) {
+            a[i] -= b[i];
+        }
+    }
+}
+
+class Mul extends Op {
+    long apply(long a, long b) {
+        return a * b;
+    }
+
+    void apply(long[] a, long[] b, int len) {
+        for (int i = 0; i < len; i++) {
+            a[i] *= b[i];
+        }
+    }
+}
+
+class Div extends Op {
+    long apply(long a, long b) {
+        return a / b;
+    }
+
+    void apply(long[] a, long[] b, int len) {
+        for (int i = 0; i < len; i++) {
+            a[i] /= b[i];
+        }
+    }
+}
+
+class Rem extends Op {
+    long apply(long a, long b) {
+        return a % b;
+    }
+
+    void apply(long[] a, long[] b, int len) {
+        for (int i = 0; i < len; i++) {
+            a[i] %= b[i];
+        }
+    }
+}
+
+// recursive descent, one method per precedence level:
+//   expr  := term (('+' | '-') term)*
+//   term  := unary (('*' | '/' | '%') unary)*
+//   unary := ('-' | '+') unary | atom
+//   atom  := number | name | '(' expr ')'
+// Formulas come from users, so both recursions are bounded: parentheses and unary signs may nest
+// MAX_NESTING deep (the parser recurses once per level), and the finished tree may be MAX_DEPTH deep
+// (eval recurses once per level). Anything deeper is an IllegalArgumentException, not a StackOverflowError.
+// A flat run like x1 + x2 + ... + x5000 is one Chain and adds a single level, so only nesting counts.
+class Parser {
+    static final int MAX_NESTING = 256;
+    static final int MAX_DEPTH = 1024;
+    static final int CONTEXT = 32; // characters of the source shown on each side of an error position
+
+    final String src;
+    int pos = 0;
+    int nesting = 0;
+    final List<String> variables = new ArrayList<>();
+
+    Parser(String src) {
+        this.src = src;
+    }
+
+    Expression parse() {
+        Node root = expr();
+        skipSpaces();
+        if (pos < src.length()) {
+            throw error("unexpected '" + src.charAt(pos) + "'");
+        }
+        return new Expression(src, root, variables.toArray(new String[0]));
+    }
+
+    Node expr() {
+        ChainBuilder chain = new ChainBuilder(term());
+        while (true) {
+            char op = peek();
+            if (op != '+' && op != '-') {
+                return chain.build();
+            }
+            pos++;
+            chain.add(op, term());
+        }
+    }
+
+    Node term() {
+        ChainBuilder chain = new ChainBuilder(unary());
+        while (true) {
+            char op = peek();
+            if (op != '*' && op != '/' && op != '%') {
+                return chain.build();
+            }
+            pos++;
+            chain.add(op, unary());
+        }
+    }
+
+    Node unary() {
+        char c = peek();
+        if (c == '-') {
+            pos++;
+            enter();
+            Node operand = unary();
+            nesting--;
+            return operand instanceof Const ? new Const(-((Const) operand).value) : checkDepth(new Negate(operand));
+        }
+        if (c == '+') {
+            pos++;
+            enter();
+            Node operand = unary();
+            nesting--;
+            return operand;
+        }
+        return atom();
+    }
+
+    Node atom() {
+        char c = peek();
+        if (c == '(') {
+            pos++;
+            enter();
+            Node n = expr();
+            if (peek() != ')') {
+                throw error("missing ')'");
+            }
+            pos++;
+            nesting--;
+            return n;
+        }
+        if (c >= '0' && c <= '9') {
+            int start = pos;
+            while (pos < src.length() && Character.isDigit(src.charAt(pos))) {
+                pos++;
+            }
+            try {
+                return new Const(Long.parseLong(src.substring(start, pos)));
+            } catch (NumberFormatException e) {
+                throw error("number too large");
+            }
+        }
+        if (Character.isJavaIdentifierStart(c)) {
+            int start = pos;
+            while (pos < src.length() && Character.isJavaIdentifierPart(src.charAt(pos))) {
+                pos++;
+            }
+            String name = src.substring(start, pos);
+            int slot = variables.indexOf(name);
+            if (slot < 0) {
+                slot = variables.size();
+                variables.add(name);
+            }
+            return new Var(slot);
+        }
+        throw error(c == 0 ? "unexpected end of expression" : "unexpected '" + c + "'");
+    }
+
+    // collects one run of same-precedence operators. Constant operands at the start are folded right
+    // away, except a division by a zero constant: that stays in the chain and throws when evaluated, like
+    // it would in Java
+    class ChainBuilder {
+        Node first;
+        final List<Op> ops = new ArrayList<>();
+        final List<Node> operands = new ArrayList<>();
+
+        ChainBuilder(Node first) {
+            this.first = first;
+        }
+
+        void add(char op, Node operand) {
+            Op o = Op.of(op);
+            if (ops.isEmpty() && first instanceof Const && operand instanceof Const
+                    && !((op == '/' || op == '%') && ((Const) operand).value == 0)) {
+                first = new Const(o.apply(((Const) first).value, ((Const) operand).value));
+                return;
+            }
+            ops.add(o);
+            operands.add(operand);
+        }
+
+        Node build() {
+            if (ops.isEmpty()) {
+                return first;
+            }
+            return checkDepth(new Chain(first, ops.toArray(new Op[0]), operands.toArray(new Node[0])));
+        }
+    }
+
+    void enter() {
+        if (++nesting > MAX_NESTING) {
+            throw error("parentheses and signs nested deeper than " + MAX_NESTING);
+        }
+    }
+
+    Node checkDepth(Node n) {
+        if (n.depth > MAX_DEPTH) {
+            throw error("expression tree deeper than " + MAX_DEPTH + " operators");
+        }
+        return n;
+    }
+
+    char peek() {
+        skipSpaces();
+        return pos < src.length() ? src.charAt(pos) : 0;
+    }
+
+    void skipSpaces() {
+        while (pos < src.length() && Character.isWhitespace(src.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    // only a window of CONTEXT characters around pos is quoted, formulas can be arbitrarily long
+    IllegalArgumentException error(String message) {
+        int from = Math.max(0, pos - CONTEXT);
+        int to = Math.min(src.length(), pos + CONTEXT);
+        String context = (from > 0 ? "..." : "") + src.substring(from, to) + (to < src.length() ? "..." : "");
+        return new IllegalArgumentException(message + " at position " + pos + " in: " + context);
+    }
+}
+
+// compiled expressions by source text, least recently used dropped first
+class ExpressionCache {
+    final int capacity;
+    final LinkedHashMap<String, Expression> cache;
+    long hits = 0;
+    long misses = 0;
+
+    ExpressionCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<String, Expression> eldest) {
+                return size() > ExpressionCache.this.capacity;
+            }
+        };
+    }
+
+    // a source that does not parse throws every time, failures are not cached
+    synchronized Expression compile(String source) {
+        Expression e = cache.get(source);
+        if (e != null) {
+            hits++;
+            return e;
+        }
+        misses++;
+        e = Expression.compile(source);
+        cache.put(source, e);
+        return e;
+    }
+
+    synchronized int size() {
+        return cache.size();
+    }
+}
+
+public class Expression14 {
+    // usage: java Expression14                   -> demo
+    //        java Expression14 "<formula>" a=1 b=2 -> evaluates one formula
+    //        java Expression14 bench [rows]      -> per-row vs batch evaluation against plain Java
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("bench")) {
+            bench(args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000);
+            return;
+        }
+        if (args.length > 0) {
+            Expression e = Expression.compile(args[0]);
+            long[] values = new long[e.variables.length];
+            for (int i = 1; i < args.length; i++) {
+                String[] kv = args[i].split("=", 2);
+                int slot = Arrays.asList(e.variables).indexOf(kv[0]);
+                if (kv.length != 2 || slot < 0) {
+                    throw new IllegalArgumentException("expected name=value for one of " + Arrays.toString(e.variables) + ": " + args[i]);
+                }
+                values[slot] = Long.parseLong(kv[1]);
+            }
+            System.out.println(e.eval(values));
+            return;
+        }
+
+        ExpressionCache cache = new ExpressionCache(1000);
+        System.out.println(cache.compile("a - b").eval(10, 20)); // calc.calculator(10, '-', 20)
+        Expression price = cache.compile("price * qty - (price * qty) % 100 + shipping");
+        System.out.println(Arrays.toString(price.variables()) + " -> " + price.eval(1999, 3, 500));
+        long[] out = new long[4];
+        price.evalBatch(Map.of("price", new long[] { 100, 250, 999, 1 }, "qty", new long[] { 1, 2, 3, 4 },
+                "shipping", new long[] { 0, 0, 500, 500 }), out);
+        System.out.println(Arrays.toString(out));
+        try {
+            cache.compile("a ^ b");
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    static void bench(int rows) {
+        String source = "(a * 3 + b) * (c - a) / 7 + b % 13";
+        Random r = new Random(14);
+        long[] a = r.longs(rows, -1_000_000, 1_000_000).toArray();
+        long[] b = r.longs(rows, -1_000_000, 1_000_000).toArray();
+        long[] c = r.longs(rows, -1_000_000, 1_000_000).toArray();
+        long[] expected = new long[rows];
+        long[] out = new long[rows];
+        ExpressionCache cache = new ExpressionCache(100);
+
+        for (int round = 0; round < 3; round++) { // first rounds warm up the JIT
+            long start = System.nanoTime();
+            for (int i = 0; i < rows; i++) {
+                expected[i] = (a[i] * 3 + b[i]) * (c[i] - a[i]) / 7 + b[i] % 13;
+            }
+            long javaNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Expression e = cache.compile(source);
+            long compileNanos = System.nanoTime() - start;
+            long[] vars = new long[3];
+            start = System.nanoTime();
+            for (int i = 0; i < rows; i++) {
+                vars[0] = a[i];
+                vars[1] = b[i];
+                vars[2] = c[i];
+                out[i] = e.root.eval(vars);
+            }
+            long rowNanos = System.nanoTime() - start;
+            if (!Arrays.equals(expected, out)) {
+                throw new IllegalStateException("per-row evaluation differs from plain Java");
+            }
+
+            Arrays.fill(out, 0);
+            start = System.nanoTime();
+            e.evalBatch(new long[][] { a, b, c }, out);
+            long batchNanos = System.nanoTime() - start;
+            if (!Arrays.equals(expected, out)) {
+                throw new IllegalStateException("batch evaluation differs from plain Java");
+            }
+            System.out.printf("plain Java %6.1f M rows/s  tree per row %6.1f M rows/s  tree batch %6.1f M rows/s  (compile or cache lookup %.1f us)%n",
+                    rows * 1e3 / javaNanos, rows * 1e3 / rowNanos, rows * 1e3 / batchNanos, compileNanos / 1e3);
+        }
+
+        int formulas = 200_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < formulas; i++) {
+            // 90% of the traffic is 50 hot formulas, the rest is spread over 5000 others; the cache holds 100
+            int id = r.nextInt(10) > 0 ? r.nextInt(50) : r.nextInt(5000);
+            cache.compile("a * " + id + " + b");
+        }
+        System.out.printf("%,d compiles through the cache: %.0f ns each, %d hits, %d misses%n",
+                formulas, (System.nanoTime() - start) / (double) formulas, cache.hits, cache.misses);
+    }
+}
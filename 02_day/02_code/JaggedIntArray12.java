@@ -0,0 +1,261 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+// jaggedArray5's int[][] as compressed sparse rows: every row back to back in one values array, and
+// offsets[i] .. offsets[i + 1] is where row i lives. One int of overhead per row instead of an array
+// header + reference + padding. Built from a dense matrix with sparse(), the zeros are dropped and
+// columns[] remembers where each kept value was; for plain jagged rows columns is null and a value's
+// column is just its position in the row.
+class JaggedIntArray {
+    static final int CHUNK = 1 << 14; // rows per task in the parallel multiply
+
+    final int[] values;
+    final int[] offsets;
+    final int[] columns;
+
+    JaggedIntArray(int[] values, int[] offsets, int[] columns) {
+        if (offsets.length == 0 || offsets[0] != 0 || offsets[offsets.length - 1] != values.length) {
+            throw new IllegalArgumentException("offsets must run from 0 to " + values.length);
+        }
+        if (columns != null && columns.length != values.length) {
+            throw new IllegalArgumentException("need one column per value: " + columns.length + " != " + values.length);
+        }
+        this.values = values;
+        this.offsets = offsets;
+        this.columns = columns;
+    }
+
+    static JaggedIntArray of(int[][] arr) {
+        int[] offsets = new int[arr.length + 1];
+        for (int i = 0; i < arr.length; i++) {
+            offsets[i + 1] = Math.addExact(offsets[i], arr[i].length);
+        }
+        int[] values = new int[offsets[arr.length]];
+        for (int i = 0; i < arr.length; i++) {
+            System.arraycopy(arr[i], 0, values, offsets[i], arr[i].length);
+        }
+        return new JaggedIntArray(values, offsets, null);
+    }
+
+    // keeps only the non-zero cells of a (possibly jagged) matrix
+    static JaggedIntArray sparse(int[][] dense) {
+        int[] offsets = new int[dense.length + 1];
+        for (int i = 0; i < dense.length; i++) {
+            int nonZero = 0;
+            for (int v : dense[i]) {
+                if (v != 0) {
+                    nonZero++;
+                }
+            }
+            offsets[i + 1] = Math.addExact(offsets[i], nonZero);
+        }
+        int[] values = new int[offsets[dense.length]];
+        int[] columns = new int[values.length];
+        for (int i = 0, p = 0; i < dense.length; i++) {
+            for (int j = 0; j < dense[i].length; j++) {
+                if (dense[i][j] != 0) {
+                    values[p] = dense[i][j];
+                    columns[p++] = j;
+                }
+            }
+        }
+        return new JaggedIntArray(values, offsets, columns);
+    }
+
+    // jagged rows of the given lengths, all zero, ready to be filled with set()
+    static JaggedIntArray withLengths(int[] lengths) {
+        int[] offsets = new int[lengths.length + 1];
+        for (int i = 0; i < lengths.length; i++) {
+            if (lengths[i] < 0) {
+                throw new IllegalArgumentException("row " + i + " has negative length " + lengths[i]);
+            }
+            offsets[i + 1] = Math.addExact(offsets[i], lengths[i]);
+        }
+        return new JaggedIntArray(new int[offsets[lengths.length]], offsets, null);
+    }
+
+    int rows() {
+        return offsets.length - 1;
+    }
+
+    int rowLength(int i) {
+        return offsets[i + 1] - offsets[i];
+    }
+
+    // j is the position inside the stored row (for sparse arrays, the j-th non-zero of that row)
+    int get(int i, int j) {
+        return values[index(i, j)];
+    }
+
+    void set(int i, int j, int v) {
+        values[index(i, j)] = v;
+    }
+
+    int column(int i, int j) {
+        int p = index(i, j);
+        return columns == null ? j : columns[p];
+    }
+
+    int index(int i, int j) {
+        if (i < 0 || i >= rows() || j < 0 || j >= rowLength(i)) {
+            throw new IndexOutOfBoundsException("(" + i + ", " + j + ") outside the array");
+        }
+        return offsets[i] + j;
+    }
+
+    IntStream row(int i) {
+        return Arrays.stream(values, offsets[i], offsets[i + 1]);
+    }
+
+    int[][] toArray() {
+        int[][] arr = new int[rows()][];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = Arrays.copyOfRange(values, offsets[i], offsets[i + 1]);
+        }
+        return arr;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    // walks every row in order without creating an object per row:
+    // while (c.nextRow()) { for (int j = 0; j < c.length(); j++) c.get(j); }
+    class Cursor {
+        int row = -1;
+
+        boolean nextRow() {
+            return ++row < rows();
+        }
+
+        int length() {
+            return rowLength(row);
+        }
+
+        int get(int j) {
+            return JaggedIntArray.this.get(row, j);
+        }
+
+        int column(int j) {
+            return JaggedIntArray.this.column(row, j);
+        }
+    }
+
+    // y = A * x; chunks of CHUNK rows run on the fork-join pool when parallel is true.
+    // Sums are kept in a long so a row of large ints cannot wrap.
+    long[] multiply(int[] x, boolean parallel) {
+        long[] y = new long[rows()];
+        IntStream chunks = IntStream.range(0, (rows() + CHUNK - 1) / CHUNK);
+        (parallel ? chunks.parallel() : chunks).forEach(c -> {
+            for (int i = c * CHUNK, end = Math.min(rows(), i + CHUNK); i < end; i++) {
+                long s = 0;
+                if (columns == null) {
+                    for (int p = offsets[i], base = p, to = offsets[i + 1]; p < to; p++) {
+                        s += (long) values[p] * x[p - base];
+                    }
+                } else {
+                    for (int p = offsets[i], to = offsets[i + 1]; p < to; p++) {
+                        s += (long) values[p] * x[columns[p]];
+                    }
+                }
+                y[i] = s;
+            }
+        });
+        return y;
+    }
+
+    // same output as printing the int[][] with nested for-each loops
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        Cursor c = cursor();
+        while (c.nextRow()) {
+            for (int j = 0; j < c.length(); j++) {
+                sb.append(c.get(j)).append(' ');
+            }
+            sb.append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+}
+
+public class JaggedIntArray12 {
+    // usage: java JaggedIntArray12                    -> the jaggedArray5 demo
+    //        java -Xmx3g JaggedIntArray12 bench [rows] -> memory and multiply speed against int[][]
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("bench")) {
+            bench(args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000);
+            return;
+        }
+
+        JaggedIntArray arr = JaggedIntArray.withLengths(new int[] { 3, 2, 4, 7, 1 });
+        for (int i = 0; i < arr.rows(); i++) {
+            for (int j = 0; j < arr.rowLength(i); j++) {
+                arr.set(i, j, (int) (Math.random() * 9 + 1));
+            }
+        }
+        System.out.println("Array values:");
+        System.out.print(arr);
+    }
+
+    static void bench(int rows) {
+        Random r = new Random(12);
+        int maxLength = 8;
+        int[] x = r.ints(maxLength, -100, 100).toArray();
+
+        long before = usedHeap();
+        int[][] nested = new int[rows][];
+        for (int i = 0; i < rows; i++) {
+            nested[i] = r.ints(1 + r.nextInt(maxLength), 1, 10).toArray();
+        }
+        long nestedBytes = usedHeap() - before;
+
+        before = usedHeap();
+        JaggedIntArray csr = JaggedIntArray.of(nested);
+        long csrBytes = usedHeap() - before;
+        System.out.printf("%,d rows, %,d values: int[][] %,d bytes (%.1f per value), CSR %,d bytes (%.1f per value)%n",
+                rows, csr.values.length, nestedBytes, (double) nestedBytes / csr.values.length,
+                csrBytes, (double) csrBytes / csr.values.length);
+
+        for (int round = 0; round < 3; round++) { // first rounds warm up the JIT
+            long start = System.nanoTime();
+            long[] expected = nestedMultiply(nested, x);
+            long nestedNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long[] y = csr.multiply(x, false);
+            long seqNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long[] yp = csr.multiply(x, true);
+            long parNanos = System.nanoTime() - start;
+
+            if (!Arrays.equals(expected, y) || !Arrays.equals(expected, yp)) {
+                throw new IllegalStateException("CSR multiply differs from int[][] multiply");
+            }
+            System.out.printf("SpMV  int[][] %7.1f M values/s  CSR %7.1f M values/s  CSR parallel %7.1f M values/s%n",
+                    csr.values.length * 1e3 / nestedNanos, csr.values.length * 1e3 / seqNanos,
+                    csr.values.length * 1e3 / parNanos);
+        }
+    }
+
+    static long[] nestedMultiply(int[][] a, int[] x) {
+        long[] y = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            long s = 0;
+            for (int j = 0; j < a[i].length; j++) {
+                s += (long) a[i][j] * x[j];
+            }
+            y[i] = s;
+        }
+        return y;
+    }
+
+    static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,433 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+// int[][] from multiDimensionalArray3 / userInputArray4 stored as one row-major int[]: element (i, j)
+// lives at data[i * cols + j], so a row is one contiguous run of memory and there is no per-row object.
+class IntMatrix {
+    static final int TILE = 64; // 64x64 ints = 16 KB, three tiles fit in L1/L2 together
+
+    final int rows;
+    final int cols;
+    final int[] data;
+
+    IntMatrix(int rows, int cols) {
+        if (rows < 0 || cols < 0 || (long) rows * cols > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("bad matrix size: " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.data = new int[rows * cols];
+    }
+
+    static IntMatrix of(int[][] arr) {
+        IntMatrix m = new IntMatrix(arr.length, arr.length == 0 ? 0 : arr[0].length);
+        for (int i = 0; i < m.rows; i++) {
+            if (arr[i].length != m.cols) {
+                throw new IllegalArgumentException("row " + i + " has " + arr[i].length + " values, expected " + m.cols);
+            }
+            System.arraycopy(arr[i], 0, m.data, i * m.cols, m.cols);
+        }
+        return m;
+    }
+
+    int[][] toArray() {
+        int[][] arr = new int[rows][];
+        for (int i = 0; i < rows; i++) {
+            arr[i] = Arrays.copyOfRange(data, i * cols, (i + 1) * cols);
+        }
+        return arr;
+    }
+
+    int get(int i, int j) {
+        return data[index(i, j)];
+    }
+
+    void set(int i, int j, int v) {
+        data[index(i, j)] = v;
+    }
+
+    int index(int i, int j) {
+        if (i < 0 || i >= rows || j < 0 || j >= cols) {
+            throw new IndexOutOfBoundsException("(" + i + ", " + j + ") outside " + rows + "x" + cols);
+        }
+        return i * cols + j;
+    }
+
+    // views share the matrix storage, writes through them change the matrix
+    IntSlice row(int i) {
+        if (i < 0 || i >= rows) {
+            throw new IndexOutOfBoundsException("row " + i + " outside " + rows + "x" + cols);
+        }
+        return new IntSlice(data, i * cols, 1, cols);
+    }
+
+    IntSlice col(int j) {
+        if (j < 0 || j >= cols) {
+            throw new IndexOutOfBoundsException("column " + j + " outside " + rows + "x" + cols);
+        }
+        return new IntSlice(data, j, cols, rows);
+    }
+
+    IntMatrix add(IntMatrix o) {
+        if (rows != o.rows || cols != o.cols) {
+            throw new IllegalArgumentException("cannot add " + rows + "x" + cols + " and " + o.rows + "x" + o.cols);
+        }
+        IntMatrix out = new IntMatrix(rows, cols);
+        for (int k = 0; k < data.length; k++) {
+            out.data[k] = data[k] + o.data[k];
+        }
+        return out;
+    }
+
+    // tile by tile, so both the reads and the strided writes stay inside a few cache lines
+    IntMatrix transpose() {
+        IntMatrix t = new IntMatrix(cols, rows);
+        for (int ii = 0; ii < rows; ii += TILE) {
+            for (int jj = 0; jj < cols; jj += TILE) {
+                for (int i = ii, iEnd = Math.min(ii + TILE, rows); i < iEnd; i++) {
+                    for (int j = jj, jEnd = Math.min(jj + TILE, cols); j < jEnd; j++) {
+                        t.data[j * rows + i] = data[i * cols + j];
+                    }
+                }
+            }
+        }
+        return t;
+    }
+
+    // Blocked i-k-j multiply: each task owns one band of TILE output rows (so no two tasks write the same
+    // cell), and inside the band the k and j loops walk TILE x TILE blocks so the rows of o being reused
+    // stay in cache. The innermost loop runs over contiguous memory in both o and the output, which the JIT
+    // can vectorize. Overflow wraps exactly like the naive int[][] loops.
+    IntMatrix multiply(IntMatrix o, boolean parallel) {
+        if (cols != o.rows) {
+            throw new IllegalArgumentException("cannot multiply " + rows + "x" + cols + " by " + o.rows + "x" + o.cols);
+        }
+        IntMatrix out = new IntMatrix(rows, o.cols);
+        int n = o.cols;
+        IntStream bands = IntStream.range(0, (rows + TILE - 1) / TILE);
+        (parallel ? bands.parallel() : bands).forEach(band -> {
+            int iStart = band * TILE, iEnd = Math.min(iStart + TILE, rows);
+            for (int kk = 0; kk < cols; kk += TILE) {
+                int kEnd = Math.min(kk + TILE, cols);
+                for (int jj = 0; jj < n; jj += TILE) {
+                    int jEnd = Math.min(jj + TILE, n);
+                    for (int i = iStart; i < iEnd; i++) {
+                        int outRow = i * n;
+                        for (int k = kk; k < kEnd; k++) {
+                            int a = data[i * cols + k];
+                            int oRow = k * n;
+                            for (int j = jj; j < jEnd; j++) {
+                                out.data[outRow + j] += a * o.data[oRow + j];
+                            }
+                        }
+                    }
+                }
+            }
+        });
+        return out;
+    }
+
+    // same text as the nested for loops: every value followed by a space, one line per row
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                sb.append(data[i * cols + j]).append(' ');
+            }
+            sb.append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    void print() {
+        System.out.print(this);
+    }
+}
+
+// a row or column of a matrix: length values starting at offset, stride apart
+class IntSlice {
+    final int[] data;
+    final int offset;
+    final int stride;
+    final int length;
+
+    IntSlice(int[] data, int offset, int stride, int length) {
+        this.data = data;
+        this.offset = offset;
+        this.stride = stride;
+        this.length = length;
+    }
+
+    int get(int k) {
+        return data[offset + check(k) * stride];
+    }
+
+    void set(int k, int v) {
+        data[offset + check(k) * stride] = v;
+    }
+
+    long sum() {
+        long s = 0;
+        for (int k = 0, p = offset; k < length; k++, p += stride) {
+            s += data[p];
+        }
+        return s;
+    }
+
+    int check(int k) {
+        if (k < 0 || k >= length) {
+            throw new IndexOutOfBoundsException("index " + k + " outside slice of length " + length);
+        }
+        return k;
+    }
+}
+
+// same layout and operations as IntMatrix for double values
+class DoubleMatrix {
+    final int rows;
+    final int cols;
+    final double[] data;
+
+    DoubleMatrix(int rows, int cols) {
+        if (rows < 0 || cols < 0 || (long) rows * cols > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("bad matrix size: " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.data = new double[rows * cols];
+    }
+
+    static DoubleMatrix of(double[][] arr) {
+        DoubleMatrix m = new DoubleMatrix(arr.length, arr.length == 0 ? 0 : arr[0].length);
+        for (int i = 0; i < m.rows; i++) {
+            if (arr[i].length != m.cols) {
+                throw new IllegalArgumentException("row " + i + " has " + arr[i].length + " values, expected " + m.cols);
+            }
+            System.arraycopy(arr[i], 0, m.data, i * m.cols, m.cols);
+        }
+        return m;
+    }
+
+    double get(int i, int j) {
+        return data[index(i, j)];
+    }
+
+    void set(int i, int j, double v) {
+        data[index(i, j)] = v;
+    }
+
+    int index(int i, int j) {
+        if (i < 0 || i >= rows || j < 0 || j >= cols) {
+            throw new IndexOutOfBoundsException("(" + i + ", " + j + ") outside " + rows + "x" + cols);
+        }
+        return i * cols + j;
+    }
+
+    DoubleSlice row(int i) {
+        if (i < 0 || i >= rows) {
+            throw new IndexOutOfBoundsException("row " + i + " outside " + rows + "x" + cols);
+        }
+        return new DoubleSlice(data, i * cols, 1, cols);
+    }
+
+    DoubleSlice col(int j) {
+        if (j < 0 || j >= cols) {
+            throw new IndexOutOfBoundsException("column " + j + " outside " + rows + "x" + cols);
+        }
+        return new DoubleSlice(data, j, cols, rows);
+    }
+
+    DoubleMatrix add(DoubleMatrix o) {
+        if (rows != o.rows || cols != o.cols) {
+            throw new IllegalArgumentException("cannot add " + rows + "x" + cols + " and " + o.rows + "x" + o.cols);
+        }
+        DoubleMatrix out = new DoubleMatrix(rows, cols);
+        for (int k = 0; k < data.length; k++) {
+            out.data[k] = data[k] + o.data[k];
+        }
+        return out;
+    }
+
+    DoubleMatrix transpose() {
+        DoubleMatrix t = new DoubleMatrix(cols, rows);
+        int tile = IntMatrix.TILE;
+        for (int ii = 0; ii < rows; ii += tile) {
+            for (int jj = 0; jj < cols; jj += tile) {
+                for (int i = ii, iEnd = Math.min(ii + tile, rows); i < iEnd; i++) {
+                    for (int j = jj, jEnd = Math.min(jj + tile, cols); j < jEnd; j++) {
+                        t.data[j * rows + i] = data[i * cols + j];
+                    }
+                }
+            }
+        }
+        return t;
+    }
+
+    // same blocking as IntMatrix.multiply; every output cell still adds its k terms in increasing k order,
+    // so the result is bit-for-bit the naive i-j-k loop result
+    DoubleMatrix multiply(DoubleMatrix o, boolean parallel) {
+        if (cols != o.rows) {
+            throw new IllegalArgumentException("cannot multiply " + rows + "x" + cols + " by " + o.rows + "x" + o.cols);
+        }
+        DoubleMatrix out = new DoubleMatrix(rows, o.cols);
+        int n = o.cols, tile = IntMatrix.TILE;
+        IntStream bands = IntStream.range(0, (rows + tile - 1) / tile);
+        (parallel ? bands.parallel() : bands).forEach(band -> {
+            int iStart = band * tile, iEnd = Math.min(iStart + tile, rows);
+            for (int kk = 0; kk < cols; kk += tile) {
+                int kEnd = Math.min(kk + tile, cols);
+                for (int jj = 0; jj < n; jj += tile) {
+                    int jEnd = Math.min(jj + tile, n);
+                    for (int i = iStart; i < iEnd; i++) {
+                        int outRow = i * n;
+                        for (int k = kk; k < kEnd; k++) {
+                            double a = data[i * cols + k];
+                            int oRow = k * n;
+                            for (int j = jj; j < jEnd; j++) {
+                                out.data[outRow + j] += a * o.data[oRow + j];
+                            }
+                        }
+                    }
+                }
+            }
+        });
+        return out;
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                sb.append(data[i * cols + j]).append(' ');
+            }
+            sb.append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    void print() {
+        System.out.print(this);
+    }
+}
+
+class DoubleSlice {
+    final double[] data;
+    final int offset;
+    final int stride;
+    final int length;
+
+    DoubleSlice(double[] data, int offset, int stride, int length) {
+        this.data = data;
+        this.offset = offset;
+        this.stride = stride;
+        this.length = length;
+    }
+
+    double get(int k) {
+        return data[offset + check(k) * stride];
+    }
+
+    void set(int k, double v) {
+        data[offset + check(k) * stride] = v;
+    }
+
+    int check(int k) {
+        if (k < 0 || k >= length) {
+            throw new IndexOutOfBoundsException("index " + k + " outside slice of length " + length);
+        }
+        return k;
+    }
+}
+
+public class Matrix11 {
+    // usage: java Matrix11                -> the multiDimensionalArray3 demo on an IntMatrix
+    //        java Matrix11 bench [max]    -> multiply 64x64 up to max x max (default 1024, try 4096)
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("bench")) {
+            bench(args.length > 1 ? Integer.parseInt(args[1]) : 1024);
+            return;
+        }
+
+        IntMatrix arr = new IntMatrix(5, 5);
+        arr.print();
+
+        System.out.println("Putting values:");
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 5; j++) {
+                arr.set(i, j, (int) (Math.random() * 9 + 1));
+            }
+        }
+        arr.print();
+
+        System.out.println("Row 0 sum: " + arr.row(0).sum() + ", column 0 sum: " + arr.col(0).sum());
+        System.out.println("Transposed:");
+        arr.transpose().print();
+    }
+
+    static void bench(int max) {
+        Random r = new Random(11);
+        for (int n = 64; n <= max; n *= 2) {
+            int[][] a = new int[n][n];
+            int[][] b = new int[n][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    a[i][j] = r.nextInt(100);
+                    b[i][j] = r.nextInt(100);
+                }
+            }
+            IntMatrix ma = IntMatrix.of(a);
+            IntMatrix mb = IntMatrix.of(b);
+            int reps = (int) Math.max(1, 500_000_000L / ((long) n * n * n));
+            double flops = 2.0 * n * n * n * reps; // a multiply and an add per inner step
+
+            int[][] naive = null;
+            IntMatrix flat = null;
+            for (int round = 0; round < (n <= 512 ? 3 : 1); round++) { // small sizes warm up the JIT first
+                long start = System.nanoTime();
+                for (int rep = 0; rep < reps; rep++) {
+                    naive = naiveMultiply(a, b);
+                }
+                long naiveNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (int rep = 0; rep < reps; rep++) {
+                    flat = ma.multiply(mb, false);
+                }
+                long tiledNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (int rep = 0; rep < reps; rep++) {
+                    flat = ma.multiply(mb, true);
+                }
+                long parallelNanos = System.nanoTime() - start;
+
+                System.out.printf("%4dx%-4d  naive int[][] %7.2f GFLOP/s  tiled %7.2f GFLOP/s  tiled parallel %7.2f GFLOP/s%n",
+                        n, n, flops / naiveNanos, flops / tiledNanos, flops / parallelNanos);
+            }
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    if (naive[i][j] != flat.get(i, j)) {
+                        throw new IllegalStateException("results differ at (" + i + ", " + j + ")");
+                    }
+                }
+            }
+        }
+    }
+
+    // the textbook triple loop over int[][]: b is walked down a column, a new row object every step
+    static int[][] naiveMultiply(int[][] a, int[][] b) {
+        int n = a.length, m = b[0].length, inner = b.length;
+        int[][] c = new int[n][m];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < m; j++) {
+                int s = 0;
+                for (int k = 0; k < inner; k++) {
+                    s += a[i][k] * b[k][j];
+                }
+                c[i][j] = s;
+            }
+        }
+        return c;
+    }
+}
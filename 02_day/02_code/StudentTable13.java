@@ -0,0 +1,248 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// arrayOfObjects6's Student[] turned sideways: one primitive array per field. A scan over marks reads
+// only the marks column, 4 bytes per student, instead of dragging every Student object (header, name
+// reference, rollNo) through the cache. Names are dictionary encoded: each distinct name is stored once
+// and a row keeps its int id.
+class StudentTable {
+    int size = 0;
+    int[] rollNo;
+    float[] marks;
+    int[] nameId;
+    final List<String> names = new ArrayList<>(); // id -> name
+    final Map<String, Integer> ids = new HashMap<>(); // name -> id
+
+    StudentTable() {
+        this(16);
+    }
+
+    StudentTable(int capacity) {
+        rollNo = new int[capacity];
+        marks = new float[capacity];
+        nameId = new int[capacity];
+    }
+
+    // returns the new row's index
+    int append(String name, int roll, float mark) {
+        if (size == rollNo.length) {
+            ensureCapacity(size + 1);
+        }
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = names.size();
+            names.add(name);
+            ids.put(name, id);
+        }
+        rollNo[size] = roll;
+        marks[size] = mark;
+        nameId[size] = id;
+        return size++;
+    }
+
+    void ensureCapacity(int needed) {
+        if (needed > rollNo.length) {
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(needed, rollNo.length * 3L / 2 + 1));
+            rollNo = Arrays.copyOf(rollNo, capacity);
+            marks = Arrays.copyOf(marks, capacity);
+            nameId = Arrays.copyOf(nameId, capacity);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    Row row(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("row " + i + " of " + size);
+        }
+        return new Row(i);
+    }
+
+    // one student, read straight from the columns
+    class Row {
+        final int i;
+
+        Row(int i) {
+            this.i = i;
+        }
+
+        String name() {
+            return names.get(nameId[i]);
+        }
+
+        int rollNo() {
+            return rollNo[i];
+        }
+
+        float marks() {
+            return marks[i];
+        }
+
+        // same line arrayOfObjects6 prints for a Student
+        public String toString() {
+            return "Roll No: " + rollNo() + " Name: " + name() + " CGPA: " + marks();
+        }
+    }
+
+    // The scans below are plain counted loops over one float[] with no calls or object loads inside,
+    // which is the shape C2 unrolls and (for the compare/count loops) turns into SIMD code.
+    // Marks are added up in a double in row order, the same as a loop over Student[] would.
+    // An empty table has no average, minimum or maximum, so all three throw IllegalStateException.
+    double averageMarks() {
+        requireStudents();
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += marks[i];
+        }
+        return sum / size;
+    }
+
+    float minMarks() {
+        requireStudents();
+        float min = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, marks[i]);
+        }
+        return min;
+    }
+
+    float maxMarks() {
+        requireStudents();
+        float max = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, marks[i]);
+        }
+        return max;
+    }
+
+    void requireStudents() {
+        if (size == 0) {
+            throw new IllegalStateException("no students");
+        }
+    }
+
+    int countInRange(float lo, float hi) {
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            float m = marks[i];
+            n += (m >= lo) & (m <= hi) ? 1 : 0; // & not &&, so there is no branch to mispredict
+        }
+        return n;
+    }
+
+    // row indices with lo <= marks <= hi, in row order
+    int[] filterByRange(float lo, float hi) {
+        int[] out = new int[countInRange(lo, hi)];
+        // always write, only advance on a hit: the slot is overwritten by the next row when it missed
+        for (int i = 0, n = 0; n < out.length; i++) {
+            float m = marks[i];
+            out[n] = i;
+            n += (m >= lo) & (m <= hi) ? 1 : 0;
+        }
+        return out;
+    }
+}
+
+public class StudentTable13 {
+    // same fields as the Student in arrayOfObjects6, kept here so the two layouts can be compared
+    static class Student {
+        String name;
+        int rollNo;
+        float marks;
+    }
+
+    // usage: java StudentTable13                          -> the arrayOfObjects6 demo from a StudentTable
+    //        java -Xmx6g StudentTable13 bench [students]   -> scans against Student[] (default 10M, try 50M)
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("bench")) {
+            bench(args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000);
+            return;
+        }
+
+        StudentTable students = new StudentTable();
+        students.append("cooldude", 21, 6.5f);
+        students.append("noname", 34, 7.5f);
+        students.append("cluster", 12, 9.9f);
+
+        for (int i = 0; i < students.size(); i++) {
+            System.out.println(students.row(i));
+        }
+        for (int i = 0; i < students.size(); i++) {
+            System.out.print(students.row(i).name() + " ");
+        }
+        System.out.println();
+    }
+
+    static void bench(int n) {
+        Random r = new Random(13);
+        String[] pool = new String[1000];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = "student" + i;
+        }
+
+        long before = usedHeap();
+        Student[] objects = new Student[n];
+        for (int i = 0; i < n; i++) {
+            Student s = new Student();
+            s.name = pool[r.nextInt(pool.length)];
+            s.rollNo = i;
+            s.marks = Math.round(r.nextFloat() * 100) / 10f;
+            objects[i] = s;
+        }
+        long objectBytes = usedHeap() - before;
+
+        before = usedHeap();
+        StudentTable table = new StudentTable(n);
+        for (Student s : objects) {
+            table.append(s.name, s.rollNo, s.marks);
+        }
+        long tableBytes = usedHeap() - before;
+        System.out.printf("%,d students: Student[] %,d bytes (%.1f per student), StudentTable %,d bytes (%.1f per student)%n",
+                n, objectBytes, (double) objectBytes / n, tableBytes, (double) tableBytes / n);
+
+        for (int round = 0; round < 3; round++) { // first rounds warm up the JIT
+            long start = System.nanoTime();
+            double avg = 0;
+            float min = Float.POSITIVE_INFINITY, max = Float.NEGATIVE_INFINITY;
+            int inRange = 0;
+            for (Student s : objects) {
+                avg += s.marks;
+                min = Math.min(min, s.marks);
+                max = Math.max(max, s.marks);
+            }
+            avg /= n;
+            for (Student s : objects) {
+                if (s.marks >= 7f && s.marks <= 9f) {
+                    inRange++;
+                }
+            }
+            long objectNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            double tAvg = table.averageMarks();
+            float tMin = table.minMarks(), tMax = table.maxMarks();
+            int[] hits = table.filterByRange(7f, 9f);
+            long tableNanos = System.nanoTime() - start;
+
+            if (avg != tAvg || min != tMin || max != tMax || inRange != hits.length) {
+                throw new IllegalStateException("table scans differ from the Student[] scans");
+            }
+            System.out.printf("avg/min/max + filter  Student[] %6.1f ms  StudentTable %6.1f ms  (avg %.4f, %,d in [7, 9])%n",
+                    objectNanos / 1e6, tableNanos / 1e6, tAvg, hits.length);
+        }
+    }
+
+    static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
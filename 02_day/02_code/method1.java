@@ -7,15 +7,20 @@ class Computer {
         return "pen";
     }
 
+    // anything that is not + - * / is rejected instead of silently multiplying; for whole formulas see Expression14
     public int calculator(int a, char c, int b) {
-        if (c == '+')
-            return a + b;
-        else if (c == '-')
-            return a - b;
-        else if (c == '/')
-            return a / b;
-        else
-            return a * b;
+        switch (c) {
+            case '+':
+                return a + b;
+            case '-':
+                return a - b;
+            case '*':
+                return a * b;
+            case '/':
+                return a / b;
+            default:
+                throw new IllegalArgumentException("unknown operator '" + c + "'");
+        }
     }
 
     public void add(int a,int b){
@@ -1,8 +1,9 @@
-import java.util.Scanner;
+// FastReader lives in Small_Assignments; usage:
+//   javac -d . ../../Small_Assignments/FastReader.java userInputArray4.java && java userInputArray4 [--fast]
 public class userInputArray4 {
     public static void main(String[] args) {
 
-        Scanner sc = new Scanner(System.in);
+        FastReader sc = FastReader.fromArgs(args);
         int[][] arr = new int[3][4];
 
         System.out.println("Enter the values of the array:");
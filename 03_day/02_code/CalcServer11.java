@@ -0,0 +1,328 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// VeryAdvCalc from inheritance2 served over TCP on loopback. One selector thread serves every connection.
+// Requests are fixed 12-byte frames, [int op][int n1][int n2], and every request gets an 8-byte answer,
+// [int status][int value], in the same order. Whatever a single read brings in is answered as one batch:
+// all complete frames are decoded, run, and the answers go back in one write. A client that pipelines
+// 100 requests therefore costs about one read and one write, not 100 of each.
+class CalcServer implements Closeable, Runnable {
+    static final int ADD = 0, SUB = 1, MUL = 2, DIV = 3, POWER = 4;
+    static final int OK = 0, ARITHMETIC_ERROR = 1, BAD_REQUEST = 2;
+    static final int REQUEST = 12, RESPONSE = 8;
+    static final int BUFFER = 64 * 1024;
+
+    final VeryAdvCalc calc = new VeryAdvCalc();
+    final ServerSocketChannel server;
+    final Selector selector;
+    final AtomicBoolean closed = new AtomicBoolean();
+
+    CalcServer(int port) throws IOException {
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    int port() throws IOException {
+        return ((InetSocketAddress) server.getLocalAddress()).getPort();
+    }
+
+    // per connection: bytes read but not yet answered, and answers not yet written
+    static class Connection {
+        final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER);
+        final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER);
+    }
+
+    public void run() {
+        try {
+            while (!closed.get()) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            serve(key);
+                        }
+                    } catch (IOException e) {
+                        key.cancel(); // that client went away, the others carry on
+                        key.channel().close();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("calc server stopped", e);
+        } finally {
+            try {
+                for (SelectionKey key : selector.keys()) {
+                    key.channel().close();
+                }
+                selector.close();
+            } catch (IOException e) {
+                // shutting down anyway
+            }
+        }
+    }
+
+    void accept() throws IOException {
+        SocketChannel ch = server.accept();
+        if (ch != null) {
+            ch.configureBlocking(false);
+            ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            ch.register(selector, SelectionKey.OP_READ, new Connection());
+        }
+    }
+
+    void serve(SelectionKey key) throws IOException {
+        SocketChannel ch = (SocketChannel) key.channel();
+        Connection c = (Connection) key.attachment();
+        if (key.isReadable() && ch.read(c.in) < 0) {
+            ch.close();
+            return;
+        }
+        c.in.flip();
+        boolean drained;
+        do {
+            // only take as many requests as there is room to answer; the rest waits in the input buffer
+            while (c.in.remaining() >= REQUEST && c.out.remaining() >= RESPONSE) {
+                answer(c.in.getInt(), c.in.getInt(), c.in.getInt(), c.out);
+            }
+            c.out.flip();
+            ch.write(c.out);
+            drained = !c.out.hasRemaining();
+            c.out.compact();
+        } while (drained && c.in.remaining() >= REQUEST);
+        c.in.compact();
+        // the socket could not take everything: wait until it can before reading more
+        key.interestOps(drained ? SelectionKey.OP_READ : SelectionKey.OP_WRITE);
+    }
+
+    void answer(int op, int n1, int n2, ByteBuffer out) {
+        int value;
+        try {
+            switch (op) {
+                case ADD:
+                    value = calc.add(n1, n2);
+                    break;
+                case SUB:
+                    value = calc.sub(n1, n2);
+                    break;
+                case MUL:
+                    value = calc.mul(n1, n2);
+                    break;
+                case DIV:
+                    value = calc.div(n1, n2);
+                    break;
+                case POWER:
+                    value = calc.power(n1, n2);
+                    break;
+                default:
+                    out.putInt(BAD_REQUEST).putInt(op);
+                    return;
+            }
+        } catch (ArithmeticException e) {
+            out.putInt(ARITHMETIC_ERROR).putInt(0); // division by zero, power overflow
+            return;
+        } catch (IllegalArgumentException e) {
+            out.putInt(BAD_REQUEST).putInt(op); // operands the operation does not take, a negative exponent
+            return;
+        }
+        out.putInt(OK).putInt(value);
+    }
+
+    // stops the selector loop, which closes the sockets on its way out
+    public void close() {
+        closed.set(true);
+        selector.wakeup();
+    }
+}
+
+public class CalcServer11 {
+    // usage: javac inheritance2.java CalcServer11.java
+    //        java CalcServer11 serve [port]                            -> runs the server until killed
+    //        java CalcServer11 load [clients] [seconds] [pipeline]      -> server + clients in one JVM on loopback
+    // with no arguments it runs the load test with pipeline 1 and then 64 to show what batching buys
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("serve")) {
+            CalcServer server = new CalcServer(args.length > 1 ? Integer.parseInt(args[1]) : 7070);
+            System.out.println("calc server on 127.0.0.1:" + server.port());
+            server.run();
+            return;
+        }
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        if (args.length > 3) {
+            load(clients, seconds, Integer.parseInt(args[3]));
+        } else {
+            load(clients, seconds, 1);
+            load(clients, seconds, 64);
+        }
+    }
+
+    static void load(int clients, int seconds, int pipeline) throws Exception {
+        CalcServer server = new CalcServer(0);
+        Thread serverThread = new Thread(server, "calc-server");
+        serverThread.start();
+        try {
+            int port = server.port();
+
+            long[][] latencies = new long[clients][];
+            long[] requests = new long[clients];
+            Thread[] workers = new Thread[clients];
+            long end = System.nanoTime() + seconds * 1_000_000_000L;
+            Throwable[] failure = new Throwable[1];
+            for (int t = 0; t < clients; t++) {
+                int id = t;
+                workers[t] = new Thread(() -> {
+                    try {
+                        Client client = new Client(port, pipeline, id);
+                        requests[id] = client.run(end);
+                        latencies[id] = client.latencies();
+                    } catch (Throwable e) {
+                        failure[0] = e;
+                    }
+                });
+                workers[t].start();
+            }
+            for (Thread w : workers) {
+                w.join();
+            }
+            if (failure[0] != null) {
+                throw new IllegalStateException("load test client failed", failure[0]);
+            }
+
+            long total = Arrays.stream(requests).sum();
+            long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+            if (all.length == 0) {
+                System.out.printf("clients=%d pipeline=%-3d no batch finished in %d s%n", clients, pipeline, seconds);
+                return;
+            }
+            System.out.printf("clients=%d pipeline=%-3d %,10.0f req/s   batch round trip p50 %7.1f us  p99 %7.1f us  max %7.1f us%n",
+                    clients, pipeline, total / (double) seconds, all[all.length / 2] / 1e3,
+                    all[(int) (all.length * 0.99)] / 1e3, all[all.length - 1] / 1e3);
+        } finally {
+            server.close();
+            serverThread.join();
+        }
+    }
+
+    // blocking client: writes pipeline requests, reads pipeline answers, checks them, repeats
+    static class Client {
+        final SocketChannel ch;
+        final int pipeline;
+        final Random r;
+        final VeryAdvCalc local = new VeryAdvCalc();
+        final ByteBuffer out;
+        final ByteBuffer in;
+        final int[] ops, a, b;
+        long[] latencies = new long[1024];
+        int rounds = 0;
+
+        Client(int port, int pipeline, int seed) throws IOException {
+            ch = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            this.pipeline = pipeline;
+            r = new Random(seed);
+            out = ByteBuffer.allocateDirect(pipeline * CalcServer.REQUEST);
+            in = ByteBuffer.allocateDirect(pipeline * CalcServer.RESPONSE);
+            ops = new int[pipeline];
+            a = new int[pipeline];
+            b = new int[pipeline];
+        }
+
+        long run(long end) throws IOException {
+            try (SocketChannel c = ch) {
+                while (System.nanoTime() < end) {
+                    out.clear();
+                    for (int i = 0; i < pipeline; i++) {
+                        ops[i] = r.nextInt(5);
+                        a[i] = r.nextInt(2000) - 1000;
+                        b[i] = ops[i] == CalcServer.POWER ? r.nextInt(5) - 1 : r.nextInt(2000) - 1000; // -1 checks BAD_REQUEST
+                        out.putInt(ops[i]).putInt(a[i]).putInt(b[i]);
+                    }
+                    out.flip();
+                    long start = System.nanoTime();
+                    while (out.hasRemaining()) {
+                        c.write(out);
+                    }
+                    in.clear();
+                    while (in.hasRemaining()) {
+                        if (c.read(in) < 0) {
+                            throw new EOFException("server closed the connection");
+                        }
+                    }
+                    record(System.nanoTime() - start);
+                    in.flip();
+                    for (int i = 0; i < pipeline; i++) {
+                        check(i, in.getInt(), in.getInt());
+                    }
+                }
+            }
+            return (long) rounds * pipeline;
+        }
+
+        void check(int i, int status, int value) {
+            int expected;
+            try {
+                switch (ops[i]) {
+                    case CalcServer.ADD:
+                        expected = local.add(a[i], b[i]);
+                        break;
+                    case CalcServer.SUB:
+                        expected = local.sub(a[i], b[i]);
+                        break;
+                    case CalcServer.MUL:
+                        expected = local.mul(a[i], b[i]);
+                        break;
+                    case CalcServer.DIV:
+                        expected = local.div(a[i], b[i]);
+                        break;
+                    default:
+                        expected = local.power(a[i], b[i]);
+                }
+            } catch (ArithmeticException e) {
+                if (status != CalcServer.ARITHMETIC_ERROR) {
+                    throw new IllegalStateException("expected an arithmetic error for op " + ops[i] + " " + a[i] + ", " + b[i]);
+                }
+                return;
+            } catch (IllegalArgumentException e) {
+                if (status != CalcServer.BAD_REQUEST) {
+                    throw new IllegalStateException("expected a bad request for op " + ops[i] + " " + a[i] + ", " + b[i]);
+                }
+                return;
+            }
+            if (status != CalcServer.OK || value != expected) {
+                throw new IllegalStateException("op " + ops[i] + " " + a[i] + ", " + b[i] + ": expected " + expected + " but got " + value + " (status " + status + ")");
+            }
+        }
+
+        void record(long nanos) {
+            if (rounds == latencies.length) {
+                latencies = Arrays.copyOf(latencies, rounds * 2);
+            }
+            latencies[rounds++] = nanos;
+        }
+
+        long[] latencies() {
+            return Arrays.copyOf(latencies, rounds);
+        }
+    }
+}
@@ -1,47 +1,102 @@
 class Calc {
+    // results are returned instead of printed, the caller decides what to do with them
     int add(int n1, int n2) {
-        System.out.println(n1 + n2);
-        return 0;
+        return n1 + n2;
     }
 
     int sub(int n1, int n2) {
-        System.out.println(n1 - n2);
-        return 0;
+        return n1 - n2;
+    }
+
+    // bulk versions work on whole arrays: out[i] = a[i] op b[i]
+    void add(int[] a, int[] b, int[] out) {
+        int n = check(a, b, out);
+        for (int i = 0; i < n; i++) {
+            out[i] = a[i] + b[i];
+        }
+    }
+
+    void sub(int[] a, int[] b, int[] out) {
+        int n = check(a, b, out);
+        for (int i = 0; i < n; i++) {
+            out[i] = a[i] - b[i];
+        }
+    }
+
+    static int check(int[] a, int[] b, int[] out) {
+        if (a.length != b.length || out.length < a.length) {
+            throw new IllegalArgumentException("array lengths differ: " + a.length + ", " + b.length + ", out " + out.length);
+        }
+        return a.length;
     }
 }
 
 class AdvCalc extends Calc { // 'extends' keyword inherits from another class, and this is called single level inheritence
     int mul(int n1, int n2) {
-        System.out.println(n1 * n2);
-        return 0;
+        return n1 * n2;
     }
 
     int div(int n1, int n2) {
-        System.out.println(n1 / n2);
-        return 0;
+        return n1 / n2;
+    }
+
+    void mul(int[] a, int[] b, int[] out) {
+        int n = check(a, b, out);
+        for (int i = 0; i < n; i++) {
+            out[i] = a[i] * b[i];
+        }
+    }
+
+    void div(int[] a, int[] b, int[] out) {
+        int n = check(a, b, out);
+        for (int i = 0; i < n; i++) {
+            out[i] = a[i] / b[i];
+        }
     }
 }
 // here 'AdvCalc' is called sub class and 'Calc' is called super class
 
 class VeryAdvCalc extends AdvCalc { // this class is accessing the AdvCalc and Calc class also, thats why its called multilevel inheritance
+    // n1 to the power n2 in exact integer math by repeated squaring (about log2(n2) multiplications),
+    // ArithmeticException when the result does not fit in an int
     int power(int n1, int n2) {
-        System.out.println(Math.pow(n1, n2));
-        return 0;
+        if (n2 < 0) {
+            throw new IllegalArgumentException("negative exponent: " + n2);
+        }
+        int result = 1;
+        int base = n1;
+        while (true) {
+            if ((n2 & 1) != 0) {
+                result = Math.multiplyExact(result, base);
+            }
+            n2 >>>= 1;
+            if (n2 == 0) {
+                return result;
+            }
+            base = Math.multiplyExact(base, base);
+        }
+    }
+
+    void power(int[] a, int[] b, int[] out) {
+        int n = check(a, b, out);
+        for (int i = 0; i < n; i++) {
+            out[i] = power(a[i], b[i]);
+        }
     }
 }
 
 public class inheritance2 {
     public static void main(String[] args) {
         Calc a = new Calc();
-        a.add(5, 9);
-        a.sub(14, 9);
+        System.out.println(a.add(5, 9));
+        System.out.println(a.sub(14, 9));
 
         AdvCalc b = new AdvCalc();
-        b.add(10, 40);
-        b.mul(3, 6);
+        System.out.println(b.add(10, 40));
+        System.out.println(b.mul(3, 6));
 
         VeryAdvCalc c = new VeryAdvCalc();
-        c.power(6, 2);
-        c.add(3, 4);
+        System.out.println(c.power(6, 2));
+        System.out.println(c.add(3, 4));
     }
 }
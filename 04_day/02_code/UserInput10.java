@@ -1,8 +1,9 @@
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.util.Scanner;
 
+// FastReader lives in Small_Assignments; usage:
+//   javac -d . ../../Small_Assignments/FastReader.java UserInput10.java && java UserInput10 [--fast]
 public class UserInput10 {
     public static void main(String[] args) throws IOException {
         // System.out.print("Enter the number: ");
@@ -19,7 +20,7 @@ public class UserInput10 {
         
         
         /* 2nd or best or new method of taking input */
-        Scanner sc = new Scanner(System.in);
+        FastReader sc = FastReader.fromArgs(args);
         System.out.print("Enter a number: ");
         int userInput2 = sc.nextInt();
         System.out.println("The user given input is: "+userInput2);
@@ -0,0 +1,482 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+// Sorted set of ints split into chunks of 65536 values (roaring bitmap idea).
+// A chunk with few values keeps them as a sorted char[], a crowded chunk becomes a 8 KB bitmap,
+// so dense id ranges cost about 1 bit per element and iteration is really in ascending order.
+class BitmapIntSet {
+    static final int ARRAY_MAX = 4096; // above this a bitmap (1024 longs) is smaller than a char[]
+
+    char[] keys = new char[4]; // high 16 bits of the values in each chunk, kept sorted
+    Chunk[] chunks = new Chunk[4];
+    int count = 0;
+
+    // high 16 bits with the sign bit flipped, so chunks sort the same way signed ints do
+    static char high(int value) {
+        return (char) ((value >>> 16) ^ 0x8000);
+    }
+
+    static int join(char key, int low) {
+        return ((key ^ 0x8000) << 16) | low;
+    }
+
+    int find(char key) {
+        return Arrays.binarySearch(keys, 0, count, key);
+    }
+
+    boolean add(int value) {
+        char key = high(value);
+        int i = find(key);
+        if (i < 0) {
+            i = -i - 1;
+            insert(i, key, new ArrayChunk());
+        }
+        int before = chunks[i].cardinality();
+        chunks[i] = chunks[i].add((char) value);
+        return chunks[i].cardinality() != before;
+    }
+
+    boolean contains(int value) {
+        int i = find(high(value));
+        return i >= 0 && chunks[i].contains((char) value);
+    }
+
+    long size() {
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += chunks[i].cardinality();
+        }
+        return total;
+    }
+
+    long bytes() {
+        long total = (long) keys.length * 2 + (long) chunks.length * 8;
+        for (int i = 0; i < count; i++) {
+            total += chunks[i].bytes();
+        }
+        return total;
+    }
+
+    void insert(int i, char key, Chunk chunk) {
+        if (count == keys.length) {
+            keys = Arrays.copyOf(keys, count * 2);
+            chunks = Arrays.copyOf(chunks, count * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, count - i);
+        System.arraycopy(chunks, i, chunks, i + 1, count - i);
+        keys[i] = key;
+        chunks[i] = chunk;
+        count++;
+    }
+
+    void append(char key, Chunk chunk) {
+        if (chunk.cardinality() > 0) {
+            insert(count, key, chunk);
+        }
+    }
+
+    // the three set operations walk both sorted key lists once, like a merge
+    BitmapIntSet union(BitmapIntSet other) {
+        BitmapIntSet out = new BitmapIntSet();
+        int i = 0, j = 0;
+        while (i < count || j < other.count) {
+            if (j == other.count || (i < count && keys[i] < other.keys[j])) {
+                out.append(keys[i], chunks[i].copy());
+                i++;
+            } else if (i == count || other.keys[j] < keys[i]) {
+                out.append(other.keys[j], other.chunks[j].copy());
+                j++;
+            } else {
+                out.append(keys[i], chunks[i].or(other.chunks[j]));
+                i++;
+                j++;
+            }
+        }
+        return out;
+    }
+
+    BitmapIntSet intersect(BitmapIntSet other) {
+        BitmapIntSet out = new BitmapIntSet();
+        int i = 0, j = 0;
+        while (i < count && j < other.count) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (other.keys[j] < keys[i]) {
+                j++;
+            } else {
+                out.append(keys[i], chunks[i].and(other.chunks[j]));
+                i++;
+                j++;
+            }
+        }
+        return out;
+    }
+
+    BitmapIntSet andNot(BitmapIntSet other) {
+        BitmapIntSet out = new BitmapIntSet();
+        int i = 0, j = 0;
+        while (i < count) {
+            if (j == other.count || keys[i] < other.keys[j]) {
+                out.append(keys[i], chunks[i].copy());
+                i++;
+            } else if (other.keys[j] < keys[i]) {
+                j++;
+            } else {
+                out.append(keys[i], chunks[i].andNot(other.chunks[j]));
+                i++;
+                j++;
+            }
+        }
+        return out;
+    }
+
+    IntIterator iterator() {
+        return new IntIterator();
+    }
+
+    // ascending order, next() returns a plain int
+    class IntIterator {
+        int chunk = 0;
+        int low = nextLow(-1);
+
+        int nextLow(int from) {
+            while (chunk < count) {
+                int l = chunks[chunk].next(from + 1);
+                if (l >= 0) {
+                    return l;
+                }
+                chunk++;
+                from = -1;
+            }
+            return -1;
+        }
+
+        boolean hasNext() {
+            return chunk < count;
+        }
+
+        int next() {
+            if (chunk >= count) {
+                throw new NoSuchElementException();
+            }
+            int value = join(keys[chunk], low);
+            low = nextLow(low);
+            return value;
+        }
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        IntIterator it = iterator();
+        while (it.hasNext()) {
+            sb.append(it.next());
+            if (it.hasNext()) {
+                sb.append(", ");
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    abstract static class Chunk {
+        abstract Chunk add(char low); // may return a different kind of chunk
+
+        abstract boolean contains(char low);
+
+        abstract int cardinality();
+
+        abstract int next(int from); // smallest value >= from, or -1
+
+        abstract long bytes();
+
+        abstract Chunk copy();
+
+        abstract Chunk or(Chunk other);
+
+        abstract Chunk and(Chunk other);
+
+        abstract Chunk andNot(Chunk other);
+    }
+
+    static class ArrayChunk extends Chunk {
+        char[] values;
+        int size;
+
+        ArrayChunk() {
+            this(new char[4], 0);
+        }
+
+        ArrayChunk(char[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        Chunk add(char low) {
+            int i = Arrays.binarySearch(values, 0, size, low);
+            if (i >= 0) {
+                return this;
+            }
+            if (size == ARRAY_MAX) {
+                return toBitmap().add(low);
+            }
+            i = -i - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, size * 2));
+            }
+            System.arraycopy(values, i, values, i + 1, size - i);
+            values[i] = low;
+            size++;
+            return this;
+        }
+
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, size, low) >= 0;
+        }
+
+        int cardinality() {
+            return size;
+        }
+
+        int next(int from) {
+            int i = from > 0xFFFF ? size : Arrays.binarySearch(values, 0, size, (char) from);
+            if (i < 0) {
+                i = -i - 1;
+            }
+            return i < size ? values[i] : -1;
+        }
+
+        long bytes() {
+            return 16 + values.length * 2L;
+        }
+
+        Chunk copy() {
+            return new ArrayChunk(Arrays.copyOf(values, size), size);
+        }
+
+        BitmapChunk toBitmap() {
+            BitmapChunk b = new BitmapChunk();
+            for (int i = 0; i < size; i++) {
+                b.words[values[i] >>> 6] |= 1L << values[i];
+            }
+            b.size = size;
+            return b;
+        }
+
+        Chunk or(Chunk other) {
+            if (other instanceof BitmapChunk) {
+                return other.or(this);
+            }
+            ArrayChunk o = (ArrayChunk) other;
+            char[] merged = new char[size + o.size];
+            int i = 0, j = 0, n = 0;
+            while (i < size && j < o.size) {
+                char a = values[i], b = o.values[j];
+                merged[n++] = a <= b ? a : b;
+                if (a <= b) {
+                    i++;
+                }
+                if (b <= a) {
+                    j++;
+                }
+            }
+            while (i < size) {
+                merged[n++] = values[i++];
+            }
+            while (j < o.size) {
+                merged[n++] = o.values[j++];
+            }
+            ArrayChunk out = new ArrayChunk(merged, n);
+            return n > ARRAY_MAX ? out.toBitmap() : out;
+        }
+
+        Chunk and(Chunk other) {
+            char[] kept = new char[size];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (other.contains(values[i])) {
+                    kept[n++] = values[i];
+                }
+            }
+            return new ArrayChunk(kept, n);
+        }
+
+        Chunk andNot(Chunk other) {
+            char[] kept = new char[size];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (!other.contains(values[i])) {
+                    kept[n++] = values[i];
+                }
+            }
+            return new ArrayChunk(kept, n);
+        }
+    }
+
+    static class BitmapChunk extends Chunk {
+        long[] words = new long[1024];
+        int size;
+
+        Chunk add(char low) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) {
+                words[low >>> 6] |= bit;
+                size++;
+            }
+            return this;
+        }
+
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        int cardinality() {
+            return size;
+        }
+
+        int next(int from) {
+            if (from > 0xFFFF) {
+                return -1;
+            }
+            int w = from >>> 6;
+            long word = words[w] & (-1L << from);
+            while (word == 0) {
+                if (++w == words.length) {
+                    return -1;
+                }
+                word = words[w];
+            }
+            return w * 64 + Long.numberOfTrailingZeros(word);
+        }
+
+        long bytes() {
+            return 16 + words.length * 8L;
+        }
+
+        Chunk copy() {
+            BitmapChunk b = new BitmapChunk();
+            b.words = words.clone();
+            b.size = size;
+            return b;
+        }
+
+        // word-at-a-time loops, the JIT can unroll and vectorize these
+        Chunk or(Chunk other) {
+            BitmapChunk out = (BitmapChunk) copy();
+            if (other instanceof BitmapChunk) {
+                long[] o = ((BitmapChunk) other).words;
+                int n = 0;
+                for (int i = 0; i < 1024; i++) {
+                    out.words[i] |= o[i];
+                    n += Long.bitCount(out.words[i]);
+                }
+                out.size = n;
+            } else {
+                ArrayChunk a = (ArrayChunk) other;
+                for (int i = 0; i < a.size; i++) {
+                    out.add(a.values[i]);
+                }
+            }
+            return out;
+        }
+
+        Chunk and(Chunk other) {
+            if (!(other instanceof BitmapChunk)) {
+                return other.and(this);
+            }
+            long[] o = ((BitmapChunk) other).words;
+            BitmapChunk out = new BitmapChunk();
+            int n = 0;
+            for (int i = 0; i < 1024; i++) {
+                out.words[i] = words[i] & o[i];
+                n += Long.bitCount(out.words[i]);
+            }
+            out.size = n;
+            return out.shrink();
+        }
+
+        Chunk andNot(Chunk other) {
+            BitmapChunk out = (BitmapChunk) copy();
+            if (other instanceof BitmapChunk) {
+                long[] o = ((BitmapChunk) other).words;
+                int n = 0;
+                for (int i = 0; i < 1024; i++) {
+                    out.words[i] &= ~o[i];
+                    n += Long.bitCount(out.words[i]);
+                }
+                out.size = n;
+            } else {
+                ArrayChunk a = (ArrayChunk) other;
+                for (int i = 0; i < a.size; i++) {
+                    long bit = 1L << a.values[i];
+                    if ((out.words[a.values[i] >>> 6] & bit) != 0) {
+                        out.words[a.values[i] >>> 6] &= ~bit;
+                        out.size--;
+                    }
+                }
+            }
+            return out.shrink();
+        }
+
+        Chunk shrink() {
+            if (size > ARRAY_MAX) {
+                return this;
+            }
+            char[] values = new char[size];
+            int n = 0;
+            for (int v = next(0); v >= 0; v = next(v + 1)) {
+                values[n++] = (char) v;
+            }
+            return new ArrayChunk(values, n);
+        }
+    }
+}
+
+public class BitmapSet10 {
+    // usage: java BitmapSet10          -> same values as Sets5, printed really sorted
+    //        java -Xmx2g BitmapSet10 bench [n]
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("bench")) {
+            bench(args.length > 1 ? Integer.parseInt(args[1]) : 100_000_000);
+            return;
+        }
+
+        BitmapIntSet nums = new BitmapIntSet();
+        for (int n : new int[] { 4, 3, 2, 1, 4, 9, 3, 5, 8 }) {
+            nums.add(n);
+        }
+        System.out.println(nums); // [1, 2, 3, 4, 5, 8, 9]
+
+        BitmapIntSet evens = new BitmapIntSet();
+        for (int n = -4; n <= 10; n += 2) {
+            evens.add(n);
+        }
+        System.out.println("union     " + nums.union(evens));
+        System.out.println("intersect " + nums.intersect(evens));
+        System.out.println("andNot    " + nums.andNot(evens));
+    }
+
+    // two clustered id sets of n values each: runs of ids with small gaps, half of them shared
+    static void bench(int n) {
+        BitmapIntSet a = new BitmapIntSet();
+        BitmapIntSet b = new BitmapIntSet();
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            a.add(i + (i >>> 20) * 65536); // 1M-id clusters separated by one empty chunk
+            b.add(i + n / 2);
+        }
+        long built = System.nanoTime() - start;
+        System.out.printf("built 2 x %,d ids in %.2f s, %.2f bits/element%n",
+                n, built / 1e9, a.bytes() * 8.0 / a.size());
+
+        for (int round = 0; round < 3; round++) {
+            start = System.nanoTime();
+            long u = a.union(b).size();
+            long t1 = System.nanoTime();
+            long x = a.intersect(b).size();
+            long t2 = System.nanoTime();
+            long d = a.andNot(b).size();
+            long t3 = System.nanoTime();
+            System.out.printf("union %,d in %d ms  intersect %,d in %d ms  andNot %,d in %d ms%n",
+                    u, (t1 - start) / 1_000_000, x, (t2 - t1) / 1_000_000, d, (t3 - t2) / 1_000_000);
+        }
+    }
+}
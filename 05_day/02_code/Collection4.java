@@ -1,20 +1,168 @@
-import java.util.List;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+// ArrayList<Integer> without the Integer boxes, 4 bytes per value instead of ~20
+class IntArrayList implements Iterable<Integer> {
+    int[] values;
+    int size = 0;
+    double growth; // new capacity = old capacity * growth, 1.5 is what ArrayList uses
+    boolean sorted = true; // stays true while every add is >= the previous value
+
+    IntArrayList() {
+        this(10, 1.5);
+    }
+
+    IntArrayList(int capacity, double growth) {
+        if (capacity < 0 || growth <= 1.0) {
+            throw new IllegalArgumentException("capacity " + capacity + ", growth " + growth);
+        }
+        this.values = new int[capacity];
+        this.growth = growth;
+    }
+
+    void add(int value) {
+        if (size == values.length) {
+            ensureCapacity(size + 1);
+        }
+        if (size > 0 && value < values[size - 1]) {
+            sorted = false;
+        }
+        values[size++] = value;
+    }
+
+    void addAll(int[] more) {
+        ensureCapacity(size + more.length);
+        for (int v : more) {
+            if (size > 0 && v < values[size - 1]) {
+                sorted = false;
+            }
+            values[size++] = v;
+        }
+    }
+
+    int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    // first index of value like List.indexOf, binary search when the list is known to be sorted
+    int indexOf(int value) {
+        if (sorted) {
+            int i = Arrays.binarySearch(values, 0, size, value);
+            if (i < 0) {
+                return -1;
+            }
+            while (i > 0 && values[i - 1] == value) {
+                i--;
+            }
+            return i;
+        }
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    void sort() {
+        Arrays.sort(values, 0, size);
+        sorted = true;
+    }
+
+    // needed < 0 means size + more overflowed, so it is checked before the early return
+    void ensureCapacity(int needed) {
+        if (needed < 0 || needed > Integer.MAX_VALUE - 8) {
+            throw new OutOfMemoryError("IntArrayList cannot hold " + Integer.toUnsignedString(needed) + " values");
+        }
+        if (needed <= values.length) {
+            return;
+        }
+        long grown = (long) (values.length * growth) + 1;
+        int capacity = (int) Math.min(Math.max(grown, needed), Integer.MAX_VALUE - 8);
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    void trimToSize() {
+        if (size < values.length) {
+            values = Arrays.copyOf(values, size);
+        }
+    }
+
+    // primitive iterator, nextInt() never boxes
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            int i = 0;
+
+            public boolean hasNext() {
+                return i < size;
+            }
+
+            public int nextInt() {
+                if (i >= size) {
+                    throw new NoSuchElementException();
+                }
+                return values[i++];
+            }
+        };
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(values[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
 
 public class Collection4 {
+    // usage: java Collection4 [entries]  -> also fills a list with that many values and prints the heap it took
     public static void main(String[] args) {
 
-        
-        List<Integer> nums = new ArrayList<Integer>(); 
+
+        IntArrayList nums = new IntArrayList();
         nums.add(4);
         nums.add(3);
         nums.add(2);
         nums.add(1);
         nums.add(4);
-        
+
         System.out.println(nums);
         System.out.println(nums.get(3));
         System.out.println(nums.indexOf(2));
-        
+
+        if (args.length > 0) {
+            int n = Integer.parseInt(args[0]);
+            Runtime rt = Runtime.getRuntime();
+            System.gc();
+            long before = rt.totalMemory() - rt.freeMemory();
+
+            IntArrayList big = new IntArrayList(n, 1.5); // sized up front so there is no copy while growing
+            for (int i = 0; i < n; i++) {
+                big.add(i * 2);
+            }
+
+            long start = System.nanoTime();
+            int found = big.indexOf(n); // still sorted, so this is a binary search
+            long elapsed = System.nanoTime() - start;
+
+            System.gc();
+            long used = rt.totalMemory() - rt.freeMemory() - before;
+            // big.size() keeps the list reachable until after the measurement
+            System.out.printf("%,d entries: %,d bytes heap (%.1f bytes/entry), indexOf(%d)=%d in %,d ns%n",
+                    big.size(), used, (double) used / n, n, found, elapsed);
+        }
+
     }
 }
@@ -0,0 +1,275 @@
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ObjIntConsumer;
+
+// Map6's student -> score map for many threads at once.
+// Keys are spread over many small open-addressing tables (segments) and each segment has its own lock,
+// so two threads only wait for each other when they hit the same segment (lock striping).
+class ConcurrentScoreMap<K> {
+    final Segment[] segments;
+    final int segmentShift;
+
+    ConcurrentScoreMap() {
+        this(Runtime.getRuntime().availableProcessors() * 16);
+    }
+
+    ConcurrentScoreMap(int concurrency) {
+        int n = Integer.highestOneBit(Math.max(2, concurrency) - 1) << 1;
+        segments = new Segment[n];
+        for (int i = 0; i < n; i++) {
+            segments[i] = new Segment();
+        }
+        segmentShift = 32 - Integer.numberOfTrailingZeros(n); // top bits pick the segment, low bits the slot
+    }
+
+    static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    Segment segmentFor(int h) {
+        return segments[h >>> segmentShift];
+    }
+
+    int get(Object key, int missing) {
+        int h = hash(key);
+        Segment s = segmentFor(h);
+        s.lock.lock();
+        try {
+            int i = s.find(key, h);
+            return s.keys[i] == null ? missing : s.values[i];
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    void put(K key, int value) {
+        int h = hash(key);
+        Segment s = segmentFor(h);
+        s.lock.lock();
+        try {
+            int i = s.claim(key, h); // claim may grow the segment, so read values only after it
+            s.values[i] = value;
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    // atomic add, a new key starts at 0
+    int increment(K key, int delta) {
+        int h = hash(key);
+        Segment s = segmentFor(h);
+        s.lock.lock();
+        try {
+            int i = s.claim(key, h);
+            return s.values[i] += delta;
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    // true if the key was absent and value went in, false if it was already there (read it with get).
+    // Every int is a valid score, so no int return value could also mean "absent".
+    boolean putIfAbsent(K key, int value) {
+        int h = hash(key);
+        Segment s = segmentFor(h);
+        s.lock.lock();
+        try {
+            int i = s.find(key, h);
+            if (s.keys[i] != null) {
+                return false;
+            }
+            i = s.claim(key, h);
+            s.values[i] = value;
+            return true;
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    // applies op to the current value if the key is there, returns false otherwise
+    boolean computeIfPresent(Object key, IntUnaryOperator op) {
+        int h = hash(key);
+        Segment s = segmentFor(h);
+        s.lock.lock();
+        try {
+            int i = s.find(key, h);
+            if (s.keys[i] == null) {
+                return false;
+            }
+            s.values[i] = op.applyAsInt(s.values[i]);
+            return true;
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    int size() {
+        int total = 0;
+        for (Segment s : segments) {
+            s.lock.lock();
+            try {
+                total += s.size;
+            } finally {
+                s.lock.unlock();
+            }
+        }
+        return total;
+    }
+
+    // weakly consistent like ConcurrentHashMap: each segment is copied under its lock and visited after
+    // unlocking, so updates to other segments during the walk may or may not be seen
+    @SuppressWarnings("unchecked")
+    void forEach(ObjIntConsumer<K> action) {
+        for (Segment s : segments) {
+            Object[] keys;
+            int[] values;
+            s.lock.lock();
+            try {
+                keys = s.keys.clone();
+                values = s.values.clone();
+            } finally {
+                s.lock.unlock();
+            }
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null) {
+                    action.accept((K) keys[i], values[i]);
+                }
+            }
+        }
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        forEach((k, v) -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(k).append('=').append(v);
+        });
+        return sb.append('}').toString();
+    }
+
+    // one small linear-probing table, only touched while holding lock
+    static class Segment {
+        final ReentrantLock lock = new ReentrantLock();
+        Object[] keys = new Object[8];
+        int[] hashes = new int[8];
+        int[] values = new int[8];
+        int size = 0;
+
+        int find(Object key, int h) {
+            int mask = keys.length - 1;
+            int i = h & mask;
+            Object k;
+            while ((k = keys[i]) != null && (hashes[i] != h || (k != key && !k.equals(key)))) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        int claim(Object key, int h) {
+            int i = find(key, h);
+            if (keys[i] == null) {
+                if (size + 1 > keys.length / 2) { // load factor 0.5
+                    grow();
+                    i = find(key, h);
+                }
+                keys[i] = key;
+                hashes[i] = h;
+                values[i] = 0;
+                size++;
+            }
+            return i;
+        }
+
+        void grow() {
+            Object[] oldKeys = keys;
+            int[] oldHashes = hashes;
+            int[] oldValues = values;
+            keys = new Object[oldKeys.length * 2];
+            hashes = new int[keys.length];
+            values = new int[keys.length];
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldKeys[j] != null) {
+                    int i = oldHashes[j] & mask;
+                    while (keys[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    hashes[i] = oldHashes[j];
+                    values[i] = oldValues[j];
+                }
+            }
+        }
+    }
+}
+
+public class ConcurrentMap11 {
+    // usage: java ConcurrentMap11 [keys] [opsPerThread]
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrentScoreMap<String> students = new ConcurrentScoreMap<>();
+        students.put("cooldude", 69);
+        students.put("random", 19);
+        students.putIfAbsent("nonsex", 59);
+        students.putIfAbsent("random", 91); // already there, stays 19
+        students.computeIfPresent("random", v -> v + 72);
+        System.out.println(students);
+        System.out.println();
+
+        int keys = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int ops = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        String[] names = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            names[i] = "student" + i;
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores * 2; threads *= 2) {
+            ConcurrentScoreMap<String> striped = new ConcurrentScoreMap<>();
+            double stripedRate = stress(threads, ops, names, striped::increment);
+            check(striped, threads, ops);
+
+            Map<String, Integer> locked = Collections.synchronizedMap(new HashMap<>());
+            double lockedRate = stress(threads, ops, names, (k, d) -> locked.merge(k, d, Integer::sum));
+
+            System.out.printf("threads=%-3d striped %7.1f M ops/s   synchronized HashMap %7.1f M ops/s%n",
+                    threads, stripedRate, lockedRate);
+        }
+    }
+
+    // every thread adds 1 to random students, so the scores must add up to threads * ops at the end
+    static double stress(int threads, int ops, String[] names, ObjIntConsumer<String> increment) throws InterruptedException {
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            workers[t] = new Thread(() -> {
+                Random r = new Random(seed);
+                for (int i = 0; i < ops; i++) {
+                    increment.accept(names[r.nextInt(names.length)], 1);
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread w : workers) {
+            w.start();
+        }
+        for (Thread w : workers) {
+            w.join();
+        }
+        return (double) threads * ops * 1e3 / (System.nanoTime() - start);
+    }
+
+    static void check(ConcurrentScoreMap<String> map, int threads, int ops) {
+        long[] total = new long[1];
+        map.forEach((k, v) -> total[0] += v);
+        if (total[0] != (long) threads * ops) {
+            throw new IllegalStateException("lost updates: expected " + (long) threads * ops + " but got " + total[0]);
+        }
+    }
+}
@@ -0,0 +1,377 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// same contract as the comparator passed to Collections.sort in Sorting7, but on plain ints
+interface IntComparator {
+    int compare(int a, int b);
+}
+
+// reads ints from a file either as raw 4-byte big-endian values or as whitespace separated text
+class IntReader implements AutoCloseable {
+    final FileChannel channel;
+    final ByteBuffer buf;
+    final boolean text;
+
+    IntReader(Path file, boolean text, int bufferBytes) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        buf = ByteBuffer.allocateDirect(bufferBytes);
+        buf.flip(); // start empty
+        this.text = text;
+    }
+
+    boolean fill() throws IOException {
+        buf.compact();
+        int n = channel.read(buf);
+        buf.flip();
+        return n > 0;
+    }
+
+    // next value into out[0], false at end of file
+    boolean next(int[] out) throws IOException {
+        if (!text) {
+            while (buf.remaining() < 4) {
+                if (!fill()) {
+                    if (buf.hasRemaining()) {
+                        throw new IOException("file size is not a multiple of 4 bytes");
+                    }
+                    return false;
+                }
+            }
+            out[0] = buf.getInt();
+            return true;
+        }
+
+        int c;
+        do { // skip whitespace
+            if (!buf.hasRemaining() && !fill()) {
+                return false;
+            }
+            c = buf.get();
+        } while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+
+        boolean negative = c == '-';
+        if (negative) {
+            if (!buf.hasRemaining() && !fill()) {
+                throw new IOException("'-' without digits");
+            }
+            c = buf.get();
+        }
+        long value = 0;
+        int digits = 0;
+        while (true) {
+            if (c < '0' || c > '9') {
+                throw new IOException("not a number: unexpected '" + (char) c + "'");
+            }
+            value = value * 10 + (c - '0');
+            if (++digits > 10 || value > (negative ? 2147483648L : Integer.MAX_VALUE)) {
+                throw new IOException("number does not fit in an int");
+            }
+            if (!buf.hasRemaining() && !fill()) {
+                break;
+            }
+            c = buf.get();
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                break;
+            }
+        }
+        out[0] = (int) (negative ? -value : value);
+        return true;
+    }
+
+    public void close() throws IOException {
+        channel.close();
+    }
+}
+
+class IntWriter implements AutoCloseable {
+    final FileChannel channel;
+    final ByteBuffer buf;
+    final boolean text;
+    long bytes = 0;
+
+    IntWriter(Path file, boolean text, int bufferBytes) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        buf = ByteBuffer.allocateDirect(bufferBytes);
+        this.text = text;
+    }
+
+    void write(int v) throws IOException {
+        if (buf.remaining() < 12) {
+            flush();
+        }
+        if (!text) {
+            buf.putInt(v);
+            return;
+        }
+        String s = Integer.toString(v);
+        for (int i = 0; i < s.length(); i++) {
+            buf.put((byte) s.charAt(i));
+        }
+        buf.put((byte) '\n');
+    }
+
+    void flush() throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            bytes += channel.write(buf);
+        }
+        buf.clear();
+    }
+
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+}
+
+class ExternalSorter {
+    final IntComparator cmp;
+    final int runInts; // how many ints are sorted in memory at a time
+    final int bufferBytes = 1 << 16;
+    int runs = 0;
+    long spilledBytes = 0;
+    long values = 0;
+
+    ExternalSorter(IntComparator cmp, long budgetBytes) {
+        this.cmp = cmp;
+        // the run and the merge sort scratch array both live in the budget, 8 bytes per int
+        this.runInts = (int) Math.max(1024, Math.min(Integer.MAX_VALUE - 8, budgetBytes / 8));
+    }
+
+    void sort(Path in, Path out, boolean text) throws IOException {
+        List<Path> spilled = new ArrayList<>();
+        try {
+            int[] run = new int[runInts];
+            int[] scratch = new int[runInts];
+            int[] v = new int[1];
+            try (IntReader reader = new IntReader(in, text, bufferBytes)) {
+                boolean more = true;
+                while (more) {
+                    int n = 0;
+                    while (n < run.length && (more = reader.next(v))) {
+                        run[n++] = v[0];
+                    }
+                    if (n == 0) {
+                        break;
+                    }
+                    values += n;
+                    mergeSort(run, scratch, 0, n);
+                    Path file = Files.createTempFile("run" + runs, ".bin");
+                    spilled.add(file);
+                    try (IntWriter w = new IntWriter(file, false, bufferBytes)) {
+                        for (int i = 0; i < n; i++) {
+                            w.write(run[i]);
+                        }
+                        w.flush();
+                        spilledBytes += w.bytes;
+                    }
+                    runs++;
+                }
+            }
+            run = null;
+            scratch = null;
+            merge(spilled, out, text);
+        } finally {
+            for (Path p : spilled) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    // k-way merge: a binary heap of run indexes ordered by each run's current value,
+    // ties go to the lower run index so equal values keep their input order (stable, like Collections.sort)
+    void merge(List<Path> spilled, Path out, boolean text) throws IOException {
+        int k = spilled.size();
+        IntReader[] readers = new IntReader[k];
+        int[] head = new int[k];
+        int[] heap = new int[k];
+        int size = 0;
+        int[] v = new int[1];
+        try (IntWriter w = new IntWriter(out, text, bufferBytes)) {
+            for (int r = 0; r < k; r++) {
+                readers[r] = new IntReader(spilled.get(r), false, bufferBytes);
+                if (readers[r].next(v)) {
+                    head[r] = v[0];
+                    heap[size] = r;
+                    siftUp(heap, head, size++);
+                }
+            }
+            while (size > 0) {
+                int r = heap[0];
+                w.write(head[r]);
+                if (readers[r].next(v)) {
+                    head[r] = v[0];
+                } else {
+                    heap[0] = heap[--size];
+                }
+                siftDown(heap, head, size);
+            }
+        } finally {
+            for (IntReader r : readers) {
+                if (r != null) {
+                    r.close();
+                }
+            }
+        }
+    }
+
+    boolean less(int[] head, int a, int b) {
+        int c = cmp.compare(head[a], head[b]);
+        return c < 0 || (c == 0 && a < b);
+    }
+
+    void siftUp(int[] heap, int[] head, int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!less(head, heap[i], heap[parent])) {
+                break;
+            }
+            int t = heap[i];
+            heap[i] = heap[parent];
+            heap[parent] = t;
+            i = parent;
+        }
+    }
+
+    void siftDown(int[] heap, int[] head, int size) {
+        int i = 0;
+        while (true) {
+            int smallest = i;
+            int l = 2 * i + 1, r = l + 1;
+            if (l < size && less(head, heap[l], heap[smallest])) {
+                smallest = l;
+            }
+            if (r < size && less(head, heap[r], heap[smallest])) {
+                smallest = r;
+            }
+            if (smallest == i) {
+                return;
+            }
+            int t = heap[i];
+            heap[i] = heap[smallest];
+            heap[smallest] = t;
+            i = smallest;
+        }
+    }
+
+    // stable merge sort of a[from, to) with an IntComparator, no boxing
+    void mergeSort(int[] a, int[] tmp, int from, int to) {
+        if (to - from <= 32) {
+            for (int i = from + 1; i < to; i++) { // insertion sort for small ranges
+                int x = a[i];
+                int j = i - 1;
+                while (j >= from && cmp.compare(a[j], x) > 0) {
+                    a[j + 1] = a[j];
+                    j--;
+                }
+                a[j + 1] = x;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(a, tmp, from, mid);
+        mergeSort(a, tmp, mid, to);
+        if (cmp.compare(a[mid - 1], a[mid]) <= 0) {
+            return; // already in order
+        }
+        System.arraycopy(a, from, tmp, from, to - from);
+        int i = from, j = mid, o = from;
+        while (i < mid && j < to) {
+            a[o++] = cmp.compare(tmp[j], tmp[i]) < 0 ? tmp[j++] : tmp[i++];
+        }
+        while (i < mid) {
+            a[o++] = tmp[i++];
+        }
+        while (j < to) {
+            a[o++] = tmp[j++];
+        }
+    }
+}
+
+public class ExternalSort13 {
+    // usage: java ExternalSort13 gen <file> <count> [--text]
+    //        java ExternalSort13 sort <in> <out> [--text] [--budget MB] [--digit]
+    //        --digit sorts by a % 10 like Sorting7, otherwise by value
+    public static void main(String[] args) throws IOException {
+        boolean gen = args.length > 0 && args[0].equals("gen");
+        boolean sort = args.length > 0 && args[0].equals("sort");
+        if (!gen && !sort) {
+            usage(args.length > 0 ? "unknown command " + args[0] : null);
+            return;
+        }
+        if (args.length < 3) {
+            usage(args[0] + " needs two more arguments");
+            return;
+        }
+        boolean text = false;
+        boolean digit = false;
+        long budget = 64L << 20;
+        for (int i = 3; i < args.length; i++) {
+            if (args[i].equals("--text")) {
+                text = true;
+            } else if (args[i].equals("--digit") && sort) {
+                digit = true;
+            } else if (args[i].equals("--budget") && sort) {
+                long mb = i + 1 < args.length ? parseCount(args[++i]) : -1;
+                if (mb <= 0 || mb > Long.MAX_VALUE >> 20) {
+                    usage("--budget needs a size in MB");
+                    return;
+                }
+                budget = mb << 20;
+            } else {
+                usage("unknown option " + args[i] + " for " + args[0]);
+                return;
+            }
+        }
+
+        if (gen) {
+            long count = parseCount(args[2]);
+            if (count < 0) {
+                usage("gen needs a count of values");
+                return;
+            }
+            Random r = new Random(13);
+            try (IntWriter w = new IntWriter(Paths.get(args[1]), text, 1 << 16)) {
+                for (long i = 0; i < count; i++) {
+                    w.write(r.nextInt());
+                }
+            }
+            return;
+        }
+
+        IntComparator cmp = digit ? (a, b) -> (a % 10) - (b % 10) : Integer::compare;
+        ExternalSorter sorter = new ExternalSorter(cmp, budget);
+        Path in = Paths.get(args[1]);
+        long start = System.nanoTime();
+        sorter.sort(in, Paths.get(args[2]), text);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long size = Files.size(in);
+        System.out.printf("%,d values, %d runs, %,d bytes spilled, %.2f s, %.1f MB/s%n",
+                sorter.values, sorter.runs, sorter.spilledBytes, seconds, size / 1e6 / seconds);
+    }
+
+    // the number, or -1 when the text is not a number
+    static long parseCount(String s) {
+        try {
+            return Long.parseLong(s);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static void usage(String problem) {
+        if (problem != null) {
+            System.out.println(problem);
+        }
+        System.out.println("usage: ExternalSort13 gen <file> <count> [--text]");
+        System.out.println("       ExternalSort13 sort <in> <out> [--text] [--budget MB] [--digit]");
+    }
+}
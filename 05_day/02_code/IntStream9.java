@@ -0,0 +1,120 @@
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+// same pipeline as Stream7 (keep odd numbers, double them, multiply them all) but on int[] with no Integer boxes
+class PrimitivePipeline {
+    enum Reduce {
+        INT, // wraps around exactly like the int reduce in Stream7
+        CHECKED, // long product, throws ArithmeticException on overflow
+        BIG // long product that moves to BigInteger once it stops fitting
+    }
+
+    static IntStream odds(int[] data, boolean parallel) {
+        IntStream s = IntStream.of(data);
+        if (parallel) {
+            s = s.parallel(); // runs on the common fork-join pool
+        }
+        return s.filter(n -> n % 2 != 0);
+    }
+
+    static int intProduct(int[] data, boolean parallel) {
+        return odds(data, parallel).map(n -> n * 2).reduce(1, (a, d) -> a * d);
+    }
+
+    static long checkedProduct(int[] data, boolean parallel) {
+        return odds(data, parallel).mapToLong(n -> n * 2L).reduce(1L, Math::multiplyExact);
+    }
+
+    static BigInteger bigProduct(int[] data, boolean parallel) {
+        return odds(data, parallel).collect(BigProduct::new, BigProduct::accept, BigProduct::combine).get();
+    }
+
+    static Number product(int[] data, boolean parallel, Reduce mode) {
+        switch (mode) {
+            case INT:
+                return intProduct(data, parallel);
+            case CHECKED:
+                return checkedProduct(data, parallel);
+            default:
+                return bigProduct(data, parallel);
+        }
+    }
+
+    // one per fork-join split, only allocates when the long part overflows
+    static class BigProduct {
+        long small = 1;
+        BigInteger big = BigInteger.ONE;
+
+        void accept(int n) {
+            long d = n * 2L;
+            long hi = Math.multiplyHigh(small, d);
+            long lo = small * d;
+            if ((hi == 0 && lo >= 0) || (hi == -1 && lo < 0)) {
+                small = lo;
+            } else {
+                big = big.multiply(BigInteger.valueOf(small));
+                small = d;
+            }
+        }
+
+        void combine(BigProduct other) {
+            big = big.multiply(other.big).multiply(BigInteger.valueOf(other.small));
+        }
+
+        BigInteger get() {
+            return big.multiply(BigInteger.valueOf(small));
+        }
+    }
+}
+
+public class IntStream9 {
+    // usage: java -Xmx4g IntStream9 [elements]
+    public static void main(String[] args) {
+        int[] small = { 1, 2, 3, 4, 5, 6 };
+        System.out.println(PrimitivePipeline.intProduct(small, false)); // 120, same as Stream7
+
+        int[] big = IntStream.rangeClosed(1, 41).toArray();
+        System.out.println("int     : " + PrimitivePipeline.product(big, false, PrimitivePipeline.Reduce.INT)); // silently wrong
+        try {
+            System.out.println("checked : " + PrimitivePipeline.product(big, false, PrimitivePipeline.Reduce.CHECKED));
+        } catch (ArithmeticException e) {
+            System.out.println("checked : overflow");
+        }
+        System.out.println("big     : " + PrimitivePipeline.product(big, true, PrimitivePipeline.Reduce.BIG));
+        System.out.println();
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 50_000_000;
+        int[] data = new Random(42).ints(n).toArray();
+        for (int round = 0; round < 3; round++) { // first rounds warm up the JIT
+            bench(data, false);
+            bench(data, true);
+        }
+    }
+
+    static void bench(int[] data, boolean parallel) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] ids = threads.getAllThreadIds();
+        long allocated = sum(threads.getThreadAllocatedBytes(ids));
+
+        long start = System.nanoTime();
+        int result = PrimitivePipeline.intProduct(data, parallel);
+        long elapsed = System.nanoTime() - start;
+
+        // threads started during the run are missed here, the pool is already warm after the first round
+        allocated = sum(threads.getThreadAllocatedBytes(ids)) - allocated;
+        System.out.printf("%-10s result=%d  %,.0f M elements/sec  %.4f bytes/element%n",
+                parallel ? "parallel" : "sequential", result, data.length * 1e3 / elapsed, (double) allocated / data.length);
+    }
+
+    static long sum(long[] values) {
+        long total = 0;
+        for (long v : values) {
+            if (v > 0) {
+                total += v;
+            }
+        }
+        return total;
+    }
+}
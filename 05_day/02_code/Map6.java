@@ -1,25 +1,289 @@
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.IntBinaryOperator;
+
+// HashMap<K, Integer> with plain int values and open addressing: keys in one array, hashes and values in another,
+// no Node or Integer objects, so put/get/merge/increment do not allocate once the table is big enough
+class ObjIntMap<K> {
+    Object[] keys;
+    int[] slots; // hash at 2*i, value at 2*i+1: a probe reads both from one cache line and only
+                 // touches the key object when the hash matches
+    int size = 0;
+    int mask;
+    int resizeAt;
+    final float loadFactor;
+
+    ObjIntMap() {
+        this(16, 0.5f);
+    }
+
+    ObjIntMap(int expected, float loadFactor) {
+        if (loadFactor <= 0 || loadFactor >= 1) {
+            throw new IllegalArgumentException("load factor must be between 0 and 1: " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        long needed = (long) Math.ceil(expected / loadFactor);
+        if (needed > 1 << 29) {
+            throw new IllegalArgumentException("ObjIntMap too large: " + needed + " slots");
+        }
+        allocate(Math.max(4, Integer.highestOneBit((int) Math.max(1, needed - 1)) << 1));
+    }
+
+    void allocate(int capacity) {
+        keys = new Object[capacity];
+        slots = new int[capacity * 2];
+        mask = capacity - 1;
+        resizeAt = (int) Math.min(capacity - 1, (long) (capacity * loadFactor));
+    }
+
+    static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9; // String caches its hashCode, so this is cheap after the first call
+        return h ^ (h >>> 16);
+    }
+
+    // slot holding key, or the free slot where it would go
+    int find(Object key) {
+        int h = hash(key);
+        int i = h & mask;
+        Object k;
+        while ((k = keys[i]) != null && (slots[2 * i] != h || (k != key && !k.equals(key)))) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    // claims slot i for key if it is still free, returns the slot key ends up in
+    int claim(int i, K key) {
+        if (keys[i] == null) {
+            keys[i] = key;
+            slots[2 * i] = hash(key);
+            slots[2 * i + 1] = 0; // the slot may still hold the value of a removed key
+            if (++size > resizeAt) {
+                rehash(keys.length << 1);
+                return find(key);
+            }
+        }
+        return i;
+    }
+
+    void put(K key, int value) {
+        int i = claim(find(key), key);
+        slots[2 * i + 1] = value;
+    }
+
+    int getOrDefault(Object key, int missing) {
+        int i = find(key);
+        return keys[i] == null ? missing : slots[2 * i + 1];
+    }
+
+    int get(Object key) {
+        int i = find(key);
+        if (keys[i] == null) {
+            throw new IllegalArgumentException("no value for " + key);
+        }
+        return slots[2 * i + 1];
+    }
+
+    boolean containsKey(Object key) {
+        return keys[find(key)] != null;
+    }
+
+    // like Map.merge: value goes in as is for a new key, otherwise op(old, value)
+    int merge(K key, int value, IntBinaryOperator op) {
+        int i = find(key);
+        if (keys[i] != null) {
+            return slots[2 * i + 1] = op.applyAsInt(slots[2 * i + 1], value);
+        }
+        i = claim(i, key);
+        return slots[2 * i + 1] = value;
+    }
+
+    int increment(K key, int delta) {
+        int i = claim(find(key), key); // a new key starts at 0
+        return slots[2 * i + 1] += delta;
+    }
+
+    boolean remove(Object key) {
+        int i = find(key);
+        if (keys[i] == null) {
+            return false;
+        }
+        // backward shift so lookups never need tombstones
+        int hole = i;
+        int j = (i + 1) & mask;
+        Object k;
+        while ((k = keys[j]) != null) {
+            int home = slots[2 * j] & mask;
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = k;
+                slots[2 * hole] = slots[2 * j];
+                slots[2 * hole + 1] = slots[2 * j + 1];
+                hole = j;
+            }
+            j = (j + 1) & mask;
+        }
+        keys[hole] = null;
+        size--;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void rehash(int capacity) {
+        Object[] oldKeys = keys;
+        int[] oldSlots = slots;
+        allocate(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != null) {
+                int i = oldSlots[2 * j] & mask;
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                slots[2 * i] = oldSlots[2 * j];
+                slots[2 * i + 1] = oldSlots[2 * j + 1];
+            }
+        }
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    // walks the table once and hands out key and value together, no second lookup per key
+    class Cursor {
+        int i = -1;
+
+        boolean next() {
+            while (++i < keys.length) {
+                if (keys[i] != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        K key() {
+            return (K) keys[i];
+        }
+
+        int value() {
+            return slots[2 * i + 1];
+        }
+    }
+
+    List<K> keyList() {
+        List<K> out = new ArrayList<>(size);
+        for (Cursor c = cursor(); c.next();) {
+            out.add(c.key());
+        }
+        return out;
+    }
+
+    int[] valueArray() {
+        int[] out = new int[size];
+        int n = 0;
+        for (Cursor c = cursor(); c.next();) {
+            out[n++] = c.value();
+        }
+        return out;
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (Cursor c = cursor(); c.next();) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(c.key()).append('=').append(c.value());
+        }
+        return sb.append('}').toString();
+    }
+}
 
 public class Map6 {
+    // usage: java Map6               -> the demo
+    //        java -Xmx4g Map6 bench [keys]
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("bench")) {
+            bench(args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000);
+            return;
+        }
+
+        ObjIntMap<String> students = new ObjIntMap<>();
 
-        Map<String, Integer> students = new HashMap<>();
-        
         students.put("cooldude", 69);
         students.put("random", 19);
         students.put("nonsex", 59);
         students.put("random", 91);
-        
+
         System.out.println(students);
-        System.out.println(students.keySet());
-        System.out.println(students.values());
+        System.out.println(students.keyList());
+        System.out.println(Arrays.toString(students.valueArray()));
         System.out.println();
 
-        for (String key : students.keySet()) {
-            System.out.println(key+" : "+students.get(key));
+        for (ObjIntMap<String>.Cursor c = students.cursor(); c.next();) {
+            System.out.println(c.key()+" : "+c.value()); // key and value from the same slot, no get(key) again
         }
 
 
     }
+
+    static void bench(int n) {
+        String[] names = new String[n];
+        for (int i = 0; i < n; i++) {
+            names[i] = "student" + i;
+            names[i].hashCode(); // both maps get the cached hash
+        }
+
+        for (int round = 0; round < 3; round++) { // first rounds warm up the JIT
+            System.gc();
+            long start = System.nanoTime();
+            Map<String, Integer> boxed = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                boxed.put(names[i], i);
+            }
+            long put = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                boxed.merge(names[i], 1, Integer::sum);
+            }
+            long merged = System.nanoTime();
+            long total = 0;
+            for (String key : boxed.keySet()) {
+                total += boxed.get(key);
+            }
+            long done = System.nanoTime();
+            report("HashMap", n, put - start, merged - put, done - merged, total);
+            boxed = null;
+
+            System.gc();
+            start = System.nanoTime();
+            ObjIntMap<String> map = new ObjIntMap<>();
+            for (int i = 0; i < n; i++) {
+                map.put(names[i], i);
+            }
+            put = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                map.increment(names[i], 1);
+            }
+            merged = System.nanoTime();
+            total = 0;
+            for (ObjIntMap<String>.Cursor c = map.cursor(); c.next();) {
+                total += c.value();
+            }
+            done = System.nanoTime();
+            report("ObjIntMap", n, put - start, merged - put, done - merged, total);
+        }
+    }
+
+    static void report(String name, int n, long putNanos, long mergeNanos, long iterateNanos, long total) {
+        System.out.printf("%-10s put %6.1f M/s  increment %6.1f M/s  iterate %6.1f M/s  total=%d%n",
+                name, n * 1e3 / putNanos, n * 1e3 / mergeNanos, n * 1e3 / iterateNanos, total);
+    }
 }
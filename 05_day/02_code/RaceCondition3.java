@@ -1,33 +1,139 @@
-class Counter {
-    int count = 0;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+interface Counter {
+    void increment();
+
+    long get();
+
+    // called by every worker when it is done, counters that buffer per thread push their leftovers here
+    default void flush() {
+    }
+}
+
+class SynchronizedCounter implements Counter {
+    long count = 0;
 
     public synchronized void increment() {
         count++;
     }
+
+    public synchronized long get() {
+        return count;
+    }
 }
 
-public class RaceCondition3{
-    public static void main(String[] args) throws InterruptedException {
-        Counter counter = new Counter();
+class AtomicCounter implements Counter {
+    final AtomicLong count = new AtomicLong();
 
-        Thread t1 = new Thread(() -> {
-            for (int i = 0; i < 100000; i++) {
-                counter.increment();
-            }
-        });
+    public void increment() {
+        count.incrementAndGet(); // CAS loop, no lock but every thread still hits the same cache line
+    }
+
+    public long get() {
+        return count.get();
+    }
+}
+
+class StripedCounter implements Counter {
+    // each cell sits 16 longs (128 bytes) away from the next one so two cells never share a cache line (false sharing)
+    static final int PAD = 16;
 
-        Thread t2 = new Thread(() -> {
-            for (int i = 0; i < 100000; i++) {
-                counter.increment();
-            }
-        });
+    final AtomicLongArray cells;
+    final int mask;
+    final ThreadLocal<int[]> probe = ThreadLocal.withInitial(() -> new int[] { (int) Thread.currentThread().getId() * 0x9E3779B9 });
+
+    StripedCounter() {
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1) * 2;
+        cells = new AtomicLongArray(stripes * PAD);
+        mask = stripes - 1;
+    }
+
+    public void increment() {
+        int[] h = probe.get();
+        int i = (h[0] & mask) * PAD;
+        long v = cells.get(i);
+        if (!cells.compareAndSet(i, v, v + 1)) {
+            h[0] = h[0] * 31 + 1; // contended, move this thread to another cell for next time
+            cells.getAndIncrement(i);
+        }
+    }
+
+    public long get() {
+        long sum = 0;
+        for (int i = 0; i < cells.length(); i += PAD) {
+            sum += cells.get(i);
+        }
+        return sum;
+    }
+}
+
+class BatchingCounter implements Counter {
+    final AtomicLong count = new AtomicLong();
+    final int batch;
+    final ThreadLocal<long[]> local = ThreadLocal.withInitial(() -> new long[1]);
+
+    BatchingCounter(int batch) {
+        this.batch = batch;
+    }
+
+    public void increment() {
+        long[] l = local.get();
+        if (++l[0] == batch) { // only touch the shared value once every batch increments
+            count.addAndGet(l[0]);
+            l[0] = 0;
+        }
+    }
+
+    public void flush() {
+        long[] l = local.get();
+        count.addAndGet(l[0]);
+        l[0] = 0;
+    }
+
+    public long get() {
+        return count.get();
+    }
+}
+
+public class RaceCondition3 {
+    // usage: java RaceCondition3 [threads] [incrementsPerThread]
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        run("synchronized", new SynchronizedCounter(), threads, perThread);
+        run("atomic", new AtomicCounter(), threads, perThread);
+        run("striped", new StripedCounter(), threads, perThread);
+        run("batching", new BatchingCounter(1024), threads, perThread);
+    }
 
-        t1.start();
-        t2.start();
+    static void run(String name, Counter counter, int threads, int perThread) throws InterruptedException {
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    counter.increment();
+                }
+                counter.flush();
+            });
+        }
 
-        t1.join();
-        t2.join();
+        long start = System.nanoTime();
+        for (Thread t : workers) {
+            t.start();
+        }
+        for (Thread t : workers) {
+            t.join();
+        }
+        long elapsed = System.nanoTime() - start;
 
-        System.out.println("Final count: " + counter.count);
+        long expected = (long) threads * perThread;
+        long count = counter.get();
+        if (count != expected) {
+            throw new IllegalStateException(name + ": expected " + expected + " but got " + count);
+        }
+        System.out.printf("%-12s threads=%d  final count: %d  %.1f M increments/sec%n",
+                name, threads, count, expected * 1e3 / elapsed);
     }
 }
@@ -0,0 +1,192 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+// Sorting int[] without boxes or comparator calls.
+// Both sorts are counting sorts: count how many values fall in each bucket, turn the counts into start
+// positions, then copy every value to its position. Values keep their order inside a bucket (stable),
+// which is what Collections.sort (a stable merge sort) does for equal keys too.
+class IntSorts {
+    static final int CHUNK = 1 << 16; // parallel passes split the array into chunks of this size
+    static final int DIGIT = -1; // pass() with this shift buckets by v % 10 instead of by a byte
+
+    // same order as Collections.sort(list, (a, b) -> (a % 10) - (b % 10)), a % 10 is -9..9 in Java
+    static void sortByLastDigit(int[] a, boolean parallel) {
+        int[] tmp = new int[a.length];
+        if (pass(a, tmp, DIGIT, null, 19, parallel)) {
+            System.arraycopy(tmp, 0, a, 0, a.length);
+        }
+    }
+
+    // stable sort by key(v), key must return 0..buckets-1; for keys the two sorts above do not cover
+    static void sortByKey(int[] a, IntUnaryOperator key, int buckets, boolean parallel) {
+        int[] tmp = new int[a.length];
+        if (pass(a, tmp, 0, key, buckets, parallel)) {
+            System.arraycopy(tmp, 0, a, 0, a.length);
+        }
+    }
+
+    // LSD radix sort for full ints, 4 passes of 8 bits, least significant byte first
+    static void radixSort(int[] a, boolean parallel) {
+        int[] src = a;
+        int[] dst = new int[a.length];
+        for (int shift = 0; shift < 32; shift += 8) {
+            if (pass(src, dst, shift, null, 256, parallel)) {
+                int[] t = src;
+                src = dst;
+                dst = t;
+            }
+        }
+        if (src != a) {
+            System.arraycopy(src, 0, a, 0, a.length);
+        }
+    }
+
+    // One counting pass from src into dst, returns false (and leaves dst alone) if every value has the same
+    // key. The key is key.applyAsInt(v) when key is given, otherwise v % 10 + 9 for shift == DIGIT or byte
+    // shift / 8 of v for the radix sort; those two are written out in count() and scatter() so the loops
+    // over the values make no call per element.
+    static boolean pass(int[] src, int[] dst, int shift, IntUnaryOperator key, int buckets, boolean parallel) {
+        int chunks = Math.max(1, (src.length + CHUNK - 1) / CHUNK);
+        int[][] counts = new int[chunks][buckets];
+
+        IntStream ids = IntStream.range(0, chunks);
+        (parallel ? ids.parallel() : ids).forEach(c -> {
+            int from = c * CHUNK;
+            count(src, from, Math.min(src.length, from + CHUNK), counts[c], shift, key);
+        });
+
+        // start of bucket b for chunk c = everything in smaller buckets + bucket b of earlier chunks
+        int pos = 0;
+        for (int b = 0; b < buckets; b++) {
+            for (int c = 0; c < chunks; c++) {
+                int n = counts[c][b];
+                if (n == src.length) {
+                    return false;
+                }
+                counts[c][b] = pos;
+                pos += n;
+            }
+        }
+
+        ids = IntStream.range(0, chunks);
+        (parallel ? ids.parallel() : ids).forEach(c -> {
+            int from = c * CHUNK;
+            scatter(src, from, Math.min(src.length, from + CHUNK), dst, counts[c], shift, key);
+        });
+        return true;
+    }
+
+    static void count(int[] src, int from, int end, int[] count, int shift, IntUnaryOperator key) {
+        if (key != null) {
+            for (int i = from; i < end; i++) {
+                count[key.applyAsInt(src[i])]++;
+            }
+        } else if (shift == DIGIT) {
+            for (int i = from; i < end; i++) {
+                count[src[i] % 10 + 9]++;
+            }
+        } else {
+            for (int i = from; i < end; i++) {
+                // flipping the sign bit makes negative numbers sort before positive ones
+                count[((src[i] ^ Integer.MIN_VALUE) >>> shift) & 0xFF]++;
+            }
+        }
+    }
+
+    // copies src[from .. end) to dst, next[b] is where the next value with key b goes
+    static void scatter(int[] src, int from, int end, int[] dst, int[] next, int shift, IntUnaryOperator key) {
+        if (key != null) {
+            for (int i = from; i < end; i++) {
+                dst[next[key.applyAsInt(src[i])]++] = src[i];
+            }
+        } else if (shift == DIGIT) {
+            for (int i = from; i < end; i++) {
+                dst[next[src[i] % 10 + 9]++] = src[i];
+            }
+        } else {
+            for (int i = from; i < end; i++) {
+                int v = src[i];
+                dst[next[((v ^ Integer.MIN_VALUE) >>> shift) & 0xFF]++] = v;
+            }
+        }
+    }
+}
+
+public class RadixSort12 {
+    // usage: java -Xmx4g RadixSort12 [n]
+    public static void main(String[] args) {
+        int[] demo = { 87, 52, 116, 94 };
+        IntSorts.sortByLastDigit(demo, false);
+        System.out.println(Arrays.toString(demo)); // [52, 94, 116, 87], same as Sorting7
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int[] data = new Random(11).ints(n).toArray();
+
+        for (int round = 0; round < 3; round++) { // first rounds warm up the JIT
+            List<Integer> list = new ArrayList<>(n);
+            for (int v : data) {
+                list.add(v);
+            }
+            long start = System.nanoTime();
+            Collections.sort(list, (a, b) -> (a % 10) - (b % 10));
+            report("Collections.sort (a % 10)", n, System.nanoTime() - start);
+
+            int[] digits = data.clone();
+            start = System.nanoTime();
+            IntSorts.sortByLastDigit(digits, false);
+            report("sortByLastDigit", n, System.nanoTime() - start);
+            same(list, digits);
+
+            digits = data.clone();
+            start = System.nanoTime();
+            IntSorts.sortByLastDigit(digits, true);
+            report("sortByLastDigit parallel", n, System.nanoTime() - start);
+            same(list, digits);
+
+            digits = data.clone();
+            start = System.nanoTime();
+            IntSorts.sortByKey(digits, v -> v % 10 + 9, 19, false); // the same order through a key function
+            report("sortByKey (v % 10 + 9)", n, System.nanoTime() - start);
+            same(list, digits);
+
+            int[] expected = data.clone();
+            start = System.nanoTime();
+            Arrays.parallelSort(expected);
+            report("Arrays.parallelSort", n, System.nanoTime() - start);
+
+            int[] radix = data.clone();
+            start = System.nanoTime();
+            IntSorts.radixSort(radix, false);
+            report("radixSort", n, System.nanoTime() - start);
+            if (!Arrays.equals(expected, radix)) {
+                throw new IllegalStateException("radixSort order differs from Arrays.sort");
+            }
+
+            radix = data.clone();
+            start = System.nanoTime();
+            IntSorts.radixSort(radix, true);
+            report("radixSort parallel", n, System.nanoTime() - start);
+            if (!Arrays.equals(expected, radix)) {
+                throw new IllegalStateException("parallel radixSort order differs from Arrays.sort");
+            }
+            System.out.println();
+        }
+    }
+
+    static void same(List<Integer> expected, int[] actual) {
+        for (int i = 0; i < actual.length; i++) {
+            if (expected.get(i) != actual[i]) {
+                throw new IllegalStateException("order differs from Collections.sort at index " + i);
+            }
+        }
+    }
+
+    static void report(String name, int n, long nanos) {
+        System.out.printf("%-27s %6d ms  %6.1f M keys/s%n", name, nanos / 1_000_000, n * 1e3 / nanos);
+    }
+}
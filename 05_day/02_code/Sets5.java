@@ -1,12 +1,193 @@
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.Set;
 
+// HashSet<Integer> without Integer and HashMap.Node objects: all values live in one int[] table (open addressing)
+class IntHashSet {
+    static final int FREE = 0; // 0 marks an empty slot, the value 0 itself is tracked by hasZero
+
+    int[] table;
+    int size = 0;
+    int mask;
+    int resizeAt;
+    boolean hasZero = false;
+    final float loadFactor;
+
+    IntHashSet() {
+        this(16, 0.5f); // lower than HashSet, a miss with linear probing scans ~1/(1-load)^2 slots
+    }
+
+    IntHashSet(int expected, float loadFactor) {
+        if (loadFactor <= 0 || loadFactor >= 1) {
+            throw new IllegalArgumentException("load factor must be between 0 and 1: " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        allocate(tableSizeFor((long) Math.ceil(expected / loadFactor)));
+    }
+
+    static int tableSizeFor(long slots) {
+        if (slots > 1 << 30) {
+            throw new IllegalArgumentException("IntHashSet too large: " + slots + " slots");
+        }
+        return Math.max(4, Integer.highestOneBit((int) Math.max(1, slots - 1)) << 1);
+    }
+
+    void allocate(int capacity) {
+        table = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) Math.min(capacity - 1, (long) (capacity * loadFactor));
+    }
+
+    // spreads the bits so sequential ids do not all land next to each other
+    static int slot(int value, int mask) {
+        int h = value * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    boolean add(int value) {
+        if (value == FREE) {
+            if (hasZero) {
+                return false;
+            }
+            hasZero = true;
+            size++;
+            return true;
+        }
+        int i = slot(value, mask);
+        int cur;
+        while ((cur = table[i]) != FREE) {
+            if (cur == value) {
+                return false;
+            }
+            i = (i + 1) & mask; // linear probing, next slot is usually in the same cache line
+        }
+        table[i] = value;
+        if (++size > resizeAt) {
+            rehash(table.length << 1);
+        }
+        return true;
+    }
+
+    boolean contains(int value) {
+        if (value == FREE) {
+            return hasZero;
+        }
+        int i = slot(value, mask);
+        int cur;
+        while ((cur = table[i]) != FREE) {
+            if (cur == value) {
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    boolean remove(int value) {
+        if (value == FREE) {
+            if (!hasZero) {
+                return false;
+            }
+            hasZero = false;
+            size--;
+            return true;
+        }
+        int i = slot(value, mask);
+        int cur;
+        while ((cur = table[i]) != value) {
+            if (cur == FREE) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        // backward shift: pull later entries of the same probe run into the hole, so no tombstones are needed
+        int hole = i;
+        int j = (i + 1) & mask;
+        while ((cur = table[j]) != FREE) {
+            int home = slot(cur, mask);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                table[hole] = cur;
+                hole = j;
+            }
+            j = (j + 1) & mask;
+        }
+        table[hole] = FREE;
+        size--;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void rehash(int capacity) {
+        int[] old = table;
+        allocate(capacity);
+        for (int v : old) {
+            if (v != FREE) {
+                int i = slot(v, mask);
+                while (table[i] != FREE) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = v;
+            }
+        }
+    }
+
+    IntIterator iterator() {
+        return new IntIterator();
+    }
+
+    // same hasNext()/next() shape as Iterator<Integer>, but next() returns a plain int
+    class IntIterator {
+        int i = hasZero ? -1 : advance(0);
+
+        int advance(int from) {
+            while (from < table.length && table[from] == FREE) {
+                from++;
+            }
+            return from;
+        }
+
+        boolean hasNext() {
+            return i < table.length;
+        }
+
+        int next() {
+            if (i >= table.length) {
+                throw new NoSuchElementException();
+            }
+            int value = i < 0 ? 0 : table[i];
+            i = advance(i + 1);
+            return value;
+        }
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        IntIterator it = iterator();
+        while (it.hasNext()) {
+            sb.append(it.next());
+            if (it.hasNext()) {
+                sb.append(", ");
+            }
+        }
+        return sb.append(']').toString();
+    }
+}
+
 public class Sets5 {
+    // usage: java Sets5              -> the demo
+    //        java -Xmx2g Sets5 bench [n]
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("bench")) {
+            bench(args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000);
+            return;
+        }
+
 
-        
-        Set<Integer> nums = new HashSet<Integer>();
+        IntHashSet nums = new IntHashSet();
         nums.add(4);
         nums.add(3);
         nums.add(2);
@@ -16,13 +197,62 @@ public class Sets5 {
         nums.add(3);
         nums.add(5);
         nums.add(8);
-        // set sorts the array and no duplication
+        // no duplication, but like HashSet the order is whatever the hash table gives, it is not sorted
         System.out.println(nums);
 
-        Iterator<Integer> values = nums.iterator();
+        IntHashSet.IntIterator values = nums.iterator();
         while (values.hasNext())
             System.out.println(values.next());
         // hasNext() checks that values iterator does have an next values or not
         // next() gives new values
     }
+
+    static void bench(int n) {
+        int[] keys = new Random(7).ints(n).toArray();
+        for (int round = 0; round < 3; round++) { // first rounds warm up the JIT
+            System.gc();
+            long start = System.nanoTime();
+            Set<Integer> boxed = new HashSet<>();
+            for (int k : keys) {
+                boxed.add(k);
+            }
+            long added = System.nanoTime();
+            long hits = 0;
+            for (int k : keys) {
+                if (boxed.contains(k + 1)) {
+                    hits++;
+                }
+            }
+            long done = System.nanoTime();
+            report("HashSet<Integer>", n, added - start, done - added, hits, heapUsed(), boxed.size());
+            boxed = null;
+
+            System.gc();
+            start = System.nanoTime();
+            IntHashSet set = new IntHashSet();
+            for (int k : keys) {
+                set.add(k);
+            }
+            added = System.nanoTime();
+            hits = 0;
+            for (int k : keys) {
+                if (set.contains(k + 1)) {
+                    hits++;
+                }
+            }
+            done = System.nanoTime();
+            report("IntHashSet", n, added - start, done - added, hits, heapUsed(), set.size());
+        }
+    }
+
+    static long heapUsed() {
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    static void report(String name, int n, long addNanos, long containsNanos, long hits, long heap, int size) {
+        System.out.printf("%-17s add %6.1f M/s  contains %6.1f M/s  hits=%d  size=%d  heap %,d MB%n",
+                name, n * 1e3 / addNanos, n * 1e3 / containsNanos, hits, size, heap >> 20);
+    }
 }
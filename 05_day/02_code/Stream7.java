@@ -17,11 +17,16 @@ public class Stream7 {
 
         
         // another approach of using stream is:
-        int result = list.stream()
+        int result = oddDoubledProduct(list);
+        System.out.println(result);
+
+    }
+
+    // odd numbers, doubled, multiplied together; benchmarks/StreamBenchmark runs this too
+    static int oddDoubledProduct(List<Integer> list) {
+        return list.stream()
                 .filter(n -> n % 2 != 0)
                 .map(n -> n * 2)
                 .reduce(1, (a, d) -> a * d);
-        System.out.println(result);
-
     }
 }
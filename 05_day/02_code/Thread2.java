@@ -1,40 +1,148 @@
-class Task1 extends Thread {
-    public void run() {
-        for (int i = 1; i <= 5; i++) {
-            System.out.println("Task 1 - Count: " + i + " Hi");
-            try {
-                Thread.sleep(500);  // Simulating some work
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class TaskRunner implements AutoCloseable {
+    enum Mode {
+        VIRTUAL, PLATFORM
+    }
+
+    // how many platform threads we allow in PLATFORM mode, every one of them is a real OS thread
+    static final int PLATFORM_THREADS = 1000;
+
+    final Mode mode;
+    final ExecutorService executor;
+    final Queue<Future<?>> submitted = new ConcurrentLinkedQueue<>();
+
+    TaskRunner(Mode wanted) {
+        ExecutorService virtual = wanted == Mode.VIRTUAL ? virtualExecutor() : null;
+        if (virtual != null) {
+            mode = Mode.VIRTUAL;
+            executor = virtual;
+        } else {
+            mode = Mode.PLATFORM; // fallback, also used when the JDK has no virtual threads (before 21)
+            executor = Executors.newFixedThreadPool(PLATFORM_THREADS);
         }
     }
-}
 
-class Task2 extends Thread {
-    public void run() {
-        for (int i = 1; i <= 5; i++) {
-            System.out.println("Task 2 - Count: " + i + " Hello");
+    // looked up by reflection so this file still compiles and runs on older JDKs
+    static ExecutorService virtualExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    Future<?> submit(Runnable task) {
+        Future<?> f = executor.submit(task);
+        submitted.add(f);
+        return f;
+    }
+
+    <T> Future<T> submit(Callable<T> task) {
+        Future<T> f = executor.submit(task);
+        submitted.add(f);
+        return f;
+    }
+
+    // waits for every task submitted so far, the first failure is rethrown after all of them are done
+    void joinAll() throws InterruptedException, ExecutionException {
+        ExecutionException failure = null;
+        Future<?> f;
+        while ((f = submitted.poll()) != null) {
             try {
-                Thread.sleep(500);  
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+                f.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            } catch (CancellationException e) {
+                // cancelled tasks are not failures
             }
         }
+        if (failure != null) {
+            throw failure;
+        }
     }
-}
 
-public class Thread2 {
-    public static void main(String[] args) {
-        Task1 t1 = new Task1();
-        Task2 t2 = new Task2();
-        
-        t1.start();   
+    // interrupts running tasks and drops the ones that have not started yet
+    void cancelAll() {
+        Future<?> f;
+        while ((f = submitted.poll()) != null) {
+            f.cancel(true);
+        }
+    }
+
+    public void close() {
+        executor.shutdownNow();
         try {
-            Thread.sleep(200);  
+            executor.awaitTermination(1, TimeUnit.MINUTES);
         } catch (InterruptedException e) {
-            e.printStackTrace();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
+
+public class Thread2 {
+    // same bodies Task1 and Task2 used to have, now plain Runnables instead of Thread subclasses
+    static Runnable task(int id, String word) {
+        return () -> {
+            for (int i = 1; i <= 5; i++) {
+                System.out.println("Task " + id + " - Count: " + i + " " + word);
+                try {
+                    Thread.sleep(500); // Simulating some work
+                } catch (InterruptedException e) {
+                    return; // cancelled
+                }
+            }
+        };
+    }
+
+    // usage: java Thread2            -> the Task 1 / Task 2 demo
+    //        java Thread2 bench [virtual|platform]
+    public static void main(String[] args) throws Exception {
+        TaskRunner.Mode mode = args.length > 1 && args[1].equals("platform") ? TaskRunner.Mode.PLATFORM : TaskRunner.Mode.VIRTUAL;
+        if (args.length > 0 && args[0].equals("bench")) {
+            bench(mode);
+            return;
+        }
+
+        try (TaskRunner runner = new TaskRunner(mode)) {
+            runner.submit(task(1, "Hi"));
+            Thread.sleep(200);
+            runner.submit(task(2, "Hello"));
+            runner.joinAll();
+        }
+    }
+
+    static void bench(TaskRunner.Mode wanted) throws Exception {
+        for (int n : new int[] { 10_000, 100_000, 1_000_000 }) {
+            try (TaskRunner runner = new TaskRunner(wanted)) {
+                if (runner.mode == TaskRunner.Mode.PLATFORM && n > 10 * TaskRunner.PLATFORM_THREADS) {
+                    System.out.println(n + " sleepers: skipped, platform threads would need " + n / TaskRunner.PLATFORM_THREADS + " rounds of 500 ms");
+                    continue;
+                }
+                long start = System.nanoTime();
+                for (int i = 0; i < n; i++) {
+                    runner.submit(() -> {
+                        try {
+                            Thread.sleep(500);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+                }
+                runner.joinAll();
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("%s %,d sleepers: %.2f s  %,.0f tasks/sec%n", runner.mode, n, seconds, n / seconds);
+            }
         }
-        t2.start();   
     }
 }
@@ -1,5 +1,5 @@
-import java.util.Scanner;
-
+// FastReader lives in Small_Assignments; usage:
+//   javac -d . ../../Small_Assignments/FastReader.java try1.java && java try1 [--fast]
 public class try1 {
     public static void main(String[] args) {
         // { // 1st example
@@ -16,7 +16,7 @@ public class try1 {
 
         { // 2nd example
             int num;
-            try (Scanner sc = new Scanner(System.in);) { // in here you dont need any finally block and its automatically closed
+            try (FastReader sc = FastReader.fromArgs(args);) { // in here you dont need any finally block and its automatically closed
                 System.out.print("Enter the number: ");
                 num = sc.nextInt();
             }
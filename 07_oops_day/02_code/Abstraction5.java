@@ -1,37 +1,5 @@
-abstract class Shape {
-    abstract double area();
-
-    void display() {
-        System.out.println("Calculating area of shape...");
-    }
-}
-
-class Rectangle extends Shape {
-    double length, width;
-
-    Rectangle(double length, double width) {
-        this.length = length;
-        this.width = width;
-    }
-
-    double area() {
-        return length * width;
-    }
-}
-
-class Triangle extends Shape {
-    double base, height;
-
-    Triangle(double base, double height) {
-        this.base = base;
-        this.height = height;
-    }
-
-    double area() {
-        return 0.5 * base * height;
-    }
-}
-
+// Shape, Rectangle and Triangle each have their own file (Shape.java, Rectangle.java, Triangle.java)
+// so ShapeBatch7 can use them as well
 public class Abstraction5 {
     public static void main(String[] args) {
         Shape s2 = new Rectangle(4, 6);
@@ -0,0 +1,7 @@
+abstract class Shape {
+    abstract double area();
+
+    void display() {
+        System.out.println("Calculating area of shape...");
+    }
+}
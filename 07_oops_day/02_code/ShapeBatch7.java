@@ -0,0 +1,218 @@
+import java.util.Random;
+import java.util.stream.IntStream;
+
+// Abstraction5's shapes in bulk. A loop calling shape.area() on a mixed Shape[] pays a virtual call per
+// object, and once three or more concrete types go through the same call site the JIT can no longer
+// inline any of them. ShapeBatch sorts the shapes by concrete type once, copies their fields into
+// primitive columns, and then runs one tight loop per type with the area formula written out.
+// Subclasses it does not know about stay as objects and still go through area().
+class ShapeBatch {
+    static final int CHUNK = 1 << 14;
+
+    // Rectangle columns; rectAt[k] is where the k-th rectangle was in the input
+    final double[] length, width;
+    final int[] rectAt;
+    // Triangle columns
+    final double[] base, height;
+    final int[] triAt;
+    // anything else
+    final Shape[] others;
+    final int[] otherAt;
+    final int size;
+
+    ShapeBatch(Shape[] shapes) {
+        int rects = 0, tris = 0;
+        for (Shape s : shapes) {
+            if (s.getClass() == Rectangle.class) { // exact class, a subclass could override area()
+                rects++;
+            } else if (s.getClass() == Triangle.class) {
+                tris++;
+            }
+        }
+        size = shapes.length;
+        length = new double[rects];
+        width = new double[rects];
+        rectAt = new int[rects];
+        base = new double[tris];
+        height = new double[tris];
+        triAt = new int[tris];
+        others = new Shape[shapes.length - rects - tris];
+        otherAt = new int[others.length];
+
+        int r = 0, t = 0, o = 0;
+        for (int i = 0; i < shapes.length; i++) {
+            Shape s = shapes[i];
+            if (s.getClass() == Rectangle.class) {
+                Rectangle rect = (Rectangle) s;
+                length[r] = rect.length;
+                width[r] = rect.width;
+                rectAt[r++] = i;
+            } else if (s.getClass() == Triangle.class) {
+                Triangle tri = (Triangle) s;
+                base[t] = tri.base;
+                height[t] = tri.height;
+                triAt[t++] = i;
+            } else {
+                others[o] = s;
+                otherAt[o++] = i;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    // out[i] is shapes[i].area(), bit for bit: the formulas below are the ones in Rectangle and Triangle
+    void areas(double[] out) {
+        if (out.length < size) {
+            throw new IllegalArgumentException("out has room for " + out.length + " areas, need " + size);
+        }
+        for (int k = 0; k < length.length; k++) {
+            out[rectAt[k]] = length[k] * width[k];
+        }
+        for (int k = 0; k < base.length; k++) {
+            out[triAt[k]] = 0.5 * base[k] * height[k];
+        }
+        for (int k = 0; k < others.length; k++) {
+            out[otherAt[k]] = others[k].area();
+        }
+    }
+
+    // Sum of all areas. Every chunk of CHUNK shapes of one type is summed on its own and the chunk sums are
+    // then added in a fixed order, so the result is the same with parallel on or off.
+    double totalArea(boolean parallel) {
+        int rectChunks = chunks(length.length), triChunks = chunks(base.length), otherChunks = chunks(others.length);
+        double[] partial = new double[rectChunks + triChunks + otherChunks];
+        IntStream ids = IntStream.range(0, partial.length);
+        (parallel ? ids.parallel() : ids).forEach(c -> {
+            double s = 0;
+            if (c < rectChunks) {
+                for (int k = c * CHUNK, end = Math.min(length.length, k + CHUNK); k < end; k++) {
+                    s += length[k] * width[k];
+                }
+            } else if (c < rectChunks + triChunks) {
+                int from = (c - rectChunks) * CHUNK;
+                for (int k = from, end = Math.min(base.length, from + CHUNK); k < end; k++) {
+                    s += 0.5 * base[k] * height[k];
+                }
+            } else {
+                int from = (c - rectChunks - triChunks) * CHUNK;
+                for (int k = from, end = Math.min(others.length, from + CHUNK); k < end; k++) {
+                    s += others[k].area();
+                }
+            }
+            partial[c] = s;
+        });
+        double total = 0;
+        for (double s : partial) {
+            total += s;
+        }
+        return total;
+    }
+
+    static int chunks(int n) {
+        return (n + CHUNK - 1) / CHUNK;
+    }
+}
+
+public class ShapeBatch7 {
+    // two more shapes so the benchmark's virtual-call loop sees four receiver types (megamorphic);
+    // ShapeBatch has no columns for them and calls their area()
+    static class Square extends Shape {
+        final double side;
+
+        Square(double side) {
+            this.side = side;
+        }
+
+        double area() {
+            return side * side;
+        }
+    }
+
+    static class Ellipse extends Shape {
+        final double a, b;
+
+        Ellipse(double a, double b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        double area() {
+            return Math.PI * a * b;
+        }
+    }
+
+    // usage: javac ShapeBatch7.java         (picks up Shape.java, Rectangle.java and Triangle.java)
+    //        java ShapeBatch7                 -> Abstraction5's two shapes through the batch
+    //        java -Xmx3g ShapeBatch7 bench [n] -> n mixed shapes (default 10M), virtual loop vs batch
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("bench")) {
+            bench(args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000);
+            return;
+        }
+
+        ShapeBatch batch = new ShapeBatch(new Shape[] { new Rectangle(4, 6), new Triangle(3, 7) });
+        double[] areas = new double[batch.size()];
+        batch.areas(areas);
+        System.out.println("Rectangle area: " + areas[0]);
+        System.out.println("Triangle area: " + areas[1]);
+        System.out.println("Total area: " + batch.totalArea(false));
+    }
+
+    static void bench(int n) {
+        Random r = new Random(7);
+        Shape[] shapes = new Shape[n];
+        for (int i = 0; i < n; i++) {
+            int kind = r.nextInt(20); // 45% rectangles, 45% triangles, 5% squares, 5% ellipses
+            double x = 1 + r.nextDouble() * 99, y = 1 + r.nextDouble() * 99;
+            shapes[i] = kind < 9 ? new Rectangle(x, y) : kind < 18 ? new Triangle(x, y) : kind == 18 ? new Square(x) : new Ellipse(x, y);
+        }
+
+        long start = System.nanoTime();
+        ShapeBatch batch = new ShapeBatch(shapes);
+        System.out.printf("%,d shapes grouped in %.1f ms (%,d rectangles, %,d triangles, %,d others)%n", n,
+                (System.nanoTime() - start) / 1e6, batch.length.length, batch.base.length, batch.others.length);
+
+        double[] expected = new double[n];
+        double[] areas = new double[n];
+        for (int round = 0; round < 5; round++) { // first rounds warm up the JIT
+            start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                expected[i] = shapes[i].area();
+            }
+            long virtualNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            batch.areas(areas);
+            long batchNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            double virtualTotal = 0;
+            for (Shape s : shapes) {
+                virtualTotal += s.area();
+            }
+            long virtualTotalNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            double total = batch.totalArea(false);
+            long totalNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            double parallelTotal = batch.totalArea(true);
+            long parallelNanos = System.nanoTime() - start;
+
+            for (int i = 0; i < n; i++) {
+                if (Double.doubleToRawLongBits(expected[i]) != Double.doubleToRawLongBits(areas[i])) {
+                    throw new IllegalStateException("area of shape " + i + " differs: " + expected[i] + " vs " + areas[i]);
+                }
+            }
+            if (total != parallelTotal || Math.abs(total - virtualTotal) > 1e-9 * virtualTotal) {
+                throw new IllegalStateException("totals differ: " + virtualTotal + ", " + total + ", " + parallelTotal);
+            }
+            System.out.printf("areas: virtual %6.1f M shapes/s  batch %6.1f M shapes/s   total: virtual %6.1f  batch %6.1f  batch parallel %6.1f M shapes/s%n",
+                    n * 1e3 / virtualNanos, n * 1e3 / batchNanos, n * 1e3 / virtualTotalNanos, n * 1e3 / totalNanos, n * 1e3 / parallelNanos);
+        }
+    }
+}
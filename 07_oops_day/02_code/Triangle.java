@@ -0,0 +1,12 @@
+class Triangle extends Shape {
+    double base, height;
+
+    Triangle(double base, double height) {
+        this.base = base;
+        this.height = height;
+    }
+
+    double area() {
+        return 0.5 * base * height;
+    }
+}
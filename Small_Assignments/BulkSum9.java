@@ -0,0 +1,194 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+// Sum.sum() for whole columns at once: out[i] = a[i] + b[i], plus a column total.
+// Element-wise adds wrap around exactly like the int/long + in Sum.sum(); totals never wrap:
+// int columns are added up in a long, long columns throw ArithmeticException exactly when the true
+// total does not fit in a long. Every kernel gives the same answer no matter in which order it adds.
+interface SumKernel {
+    void add(int[] a, int[] b, int[] out);
+
+    void add(long[] a, long[] b, long[] out);
+
+    long total(int[] a);
+
+    long total(long[] a);
+}
+
+// plain Java, loops unrolled by 4 with independent accumulators so the CPU can overlap the adds
+class ScalarSum implements SumKernel {
+    public void add(int[] a, int[] b, int[] out) {
+        int n = check(a.length, b.length, out.length);
+        int i = 0;
+        for (; i + 3 < n; i += 4) {
+            out[i] = a[i] + b[i];
+            out[i + 1] = a[i + 1] + b[i + 1];
+            out[i + 2] = a[i + 2] + b[i + 2];
+            out[i + 3] = a[i + 3] + b[i + 3];
+        }
+        for (; i < n; i++) {
+            out[i] = a[i] + b[i];
+        }
+    }
+
+    public void add(long[] a, long[] b, long[] out) {
+        int n = check(a.length, b.length, out.length);
+        int i = 0;
+        for (; i + 3 < n; i += 4) {
+            out[i] = a[i] + b[i];
+            out[i + 1] = a[i + 1] + b[i + 1];
+            out[i + 2] = a[i + 2] + b[i + 2];
+            out[i + 3] = a[i + 3] + b[i + 3];
+        }
+        for (; i < n; i++) {
+            out[i] = a[i] + b[i];
+        }
+    }
+
+    public long total(int[] a) {
+        long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < a.length; i += 4) {
+            s0 += a[i];
+            s1 += a[i + 1];
+            s2 += a[i + 2];
+            s3 += a[i + 3];
+        }
+        for (; i < a.length; i++) {
+            s0 += a[i];
+        }
+        return s0 + s1 + s2 + s3; // 2^31 ints of at most 2^31 each cannot overflow a long
+    }
+
+    // a running sum may wrap on the way and come back (MAX, 1, -1 is fine), so instead of addExact
+    // count the wraps: the true total is s + wraps * 2^64, which fits in a long only when wraps == 0
+    public long total(long[] a) {
+        long s = 0, wraps = 0;
+        for (long v : a) {
+            long r = s + v;
+            wraps += wrapped(s, v, r);
+            s = r;
+        }
+        return exact(s, wraps);
+    }
+
+    // +1 if s + v went past Long.MAX_VALUE and wrapped to r, -1 if it went past Long.MIN_VALUE, else 0
+    static int wrapped(long s, long v, long r) {
+        return ((s ^ r) & (v ^ r)) < 0 ? (v < 0 ? -1 : 1) : 0;
+    }
+
+    static long exact(long s, long wraps) {
+        if (wraps != 0) {
+            throw new ArithmeticException("long overflow");
+        }
+        return s;
+    }
+
+    static int check(int a, int b, int out) {
+        if (a != b || out < a) {
+            throw new IllegalArgumentException("column lengths differ: " + a + ", " + b + ", out " + out);
+        }
+        return a;
+    }
+}
+
+class BulkSum {
+    // vector/VectorSum.java uses jdk.incubator.vector and is only compiled/run with --add-modules jdk.incubator.vector
+    // (it lives in its own directory so a plain javac *.java here does not need the module); without it the
+    // class is missing or cannot link and we stay on the scalar loops
+    static SumKernel best() {
+        try {
+            return (SumKernel) Class.forName("VectorSum").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new ScalarSum();
+        }
+    }
+}
+
+public class BulkSum9 {
+    // usage: javac BulkSum9.java && java BulkSum9                     -> scalar only
+    //        javac --add-modules jdk.incubator.vector -d vector/classes BulkSum9.java vector/VectorSum.java
+    //        java --add-modules jdk.incubator.vector -cp vector/classes BulkSum9 [maxElements]
+    public static void main(String[] args) {
+        int max = args.length > 0 ? Integer.parseInt(args[0]) : 100_000_000;
+        SumKernel scalar = new ScalarSum();
+        SumKernel best = BulkSum.best();
+        System.out.println("vector path: " + (best instanceof ScalarSum ? "not available, scalar only" : best.getClass().getName()));
+        checkTotals(scalar, best);
+
+        Random r = new Random(9);
+        for (int n = 1000; n <= max; n *= 10) {
+            int[] a = r.ints(n).toArray();
+            int[] b = r.ints(n).toArray();
+            int[] out1 = new int[n];
+            int[] out2 = new int[n];
+            long[] la = r.longs(n, -1L << 40, 1L << 40).toArray();
+
+            int reps = Math.max(3, 200_000_000 / n);
+            long[] totals = new long[2];
+            for (SumKernel k : new SumKernel[] { scalar, best }) {
+                if (k == best && best instanceof ScalarSum) {
+                    break;
+                }
+                long total = 0;
+                long start = System.nanoTime();
+                for (int rep = 0; rep < reps; rep++) {
+                    k.add(a, b, k == scalar ? out1 : out2);
+                }
+                long addNanos = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int rep = 0; rep < reps; rep++) {
+                    total += k.total(a) + k.total(la);
+                }
+                long totalNanos = System.nanoTime() - start;
+                System.out.printf("%-10s n=%,12d  add %8.1f M elements/s  total %8.1f M elements/s  (check %d)%n",
+                        k instanceof ScalarSum ? "scalar" : "vector", n,
+                        (double) n * reps * 1e3 / addNanos, 2.0 * n * reps * 1e3 / totalNanos, total);
+                totals[k == scalar ? 0 : 1] = total;
+            }
+            if (!(best instanceof ScalarSum) && (!Arrays.equals(out1, out2) || totals[0] != totals[1])) {
+                throw new IllegalStateException("vector kernel differs from scalar kernel at n=" + n);
+            }
+        }
+    }
+
+    // both kernels against an exact BigInteger total: the same value, or both throw because it does not
+    // fit. Includes columns whose running sum overflows in one lane or prefix but not in the total.
+    static void checkTotals(SumKernel scalar, SumKernel best) {
+        long max = Long.MAX_VALUE, min = Long.MIN_VALUE;
+        long[][] cases = { {}, { max, 1, -1 }, { min, -1, 1 }, { 0, -5, 0, 0, max, 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0 },
+                { max, max, min, min, 1 }, { max, 1 }, { min, -1 }, { max, max, max, max, max, max, max, max, min, min } };
+        for (long[] a : cases) {
+            checkTotal(a, scalar, best);
+        }
+        Random r = new Random(99);
+        long[] extremes = { max, min, max - 1, min + 1, 1, -1, 0 };
+        for (int c = 0; c < 2000; c++) {
+            long[] a = new long[r.nextInt(40)];
+            for (int i = 0; i < a.length; i++) {
+                a[i] = r.nextInt(3) == 0 ? r.nextLong() : extremes[r.nextInt(extremes.length)];
+            }
+            checkTotal(a, scalar, best);
+        }
+    }
+
+    static void checkTotal(long[] a, SumKernel scalar, SumKernel best) {
+        BigInteger exact = BigInteger.ZERO;
+        for (long v : a) {
+            exact = exact.add(BigInteger.valueOf(v));
+        }
+        String expected = exact.bitLength() < 64 ? exact.toString() : "overflow";
+        for (SumKernel k : new SumKernel[] { scalar, best }) {
+            String got;
+            try {
+                got = Long.toString(k.total(a));
+            } catch (ArithmeticException e) {
+                got = "overflow";
+            }
+            if (!got.equals(expected)) {
+                throw new IllegalStateException(k.getClass().getName() + ".total(" + Arrays.toString(a) + ") gave " + got + ", expected " + expected);
+            }
+        }
+    }
+}
@@ -0,0 +1,313 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Main6's Employee / Officer / Manager kept outside the Java heap. Every employee is one fixed 48-byte
+// record in direct memory, and its strings live in a separate append-only arena, also in direct memory.
+// The GC only ever sees the handful of ByteBuffer objects that own the pages, so 100M employees cost it
+// nothing to mark or copy.
+// The pages are direct ByteBuffers rather than MemorySegments: on JDK 17 those come from the incubating
+// jdk.incubator.foreign module, and this is a console demo meant to run with a plain javac/java and no
+// --add-modules. The cost is 2 GB pages and int offsets; each page maps one-to-one onto a segment.
+//
+// record layout (little endian):
+//   0  double salary
+//   8  int    age
+//   12 byte   kind (EMPLOYEE, OFFICER, MANAGER)
+//   16 long   name            \
+//   24 long   phoneNumber      | offsets into the string arena
+//   32 long   address          |
+//   40 long   specialization / department (whichever the kind has, NONE for a plain employee)
+class EmployeeStore {
+    static final byte EMPLOYEE = 0, OFFICER = 1, MANAGER = 2;
+    static final int RECORD = 48;
+    static final int SALARY = 0, AGE = 8, KIND = 12, NAME = 16, PHONE = 24, ADDRESS = 32, EXTRA = 40;
+    static final long NONE = -1;
+
+    static final int RECORDS_PER_PAGE = 1 << 20; // 48 MB pages, a ByteBuffer cannot go past 2 GB
+    static final int ARENA_PAGE = 64 << 20;
+
+    final List<ByteBuffer> records = new ArrayList<>();
+    final List<ByteBuffer> arena = new ArrayList<>();
+    long size = 0;
+    long arenaEnd = 0; // next free byte in the arena
+
+    long addEmployee(String name, int age, String phoneNumber, String address, double salary) {
+        return add(EMPLOYEE, name, age, phoneNumber, address, salary, null);
+    }
+
+    long addOfficer(String name, int age, String phoneNumber, String address, double salary, String specialization) {
+        return add(OFFICER, name, age, phoneNumber, address, salary, specialization);
+    }
+
+    long addManager(String name, int age, String phoneNumber, String address, double salary, String department) {
+        return add(MANAGER, name, age, phoneNumber, address, salary, department);
+    }
+
+    long add(byte kind, String name, int age, String phoneNumber, String address, double salary, String extra) {
+        if (size % RECORDS_PER_PAGE == 0) {
+            records.add(allocate(RECORDS_PER_PAGE * RECORD));
+        }
+        long i = size++;
+        ByteBuffer page = page(i);
+        int at = slot(i);
+        page.putDouble(at + SALARY, salary);
+        page.putInt(at + AGE, age);
+        page.put(at + KIND, kind);
+        page.putLong(at + NAME, putString(name));
+        page.putLong(at + PHONE, putString(phoneNumber));
+        page.putLong(at + ADDRESS, putString(address));
+        page.putLong(at + EXTRA, extra == null ? NONE : putString(extra));
+        return i;
+    }
+
+    long size() {
+        return size;
+    }
+
+    double salary(long i) {
+        return page(i).getDouble(slot(i) + SALARY);
+    }
+
+    void setSalary(long i, double salary) {
+        page(i).putDouble(slot(i) + SALARY, salary);
+    }
+
+    int age(long i) {
+        return page(i).getInt(slot(i) + AGE);
+    }
+
+    byte kind(long i) {
+        return page(i).get(slot(i) + KIND);
+    }
+
+    String name(long i) {
+        return string(i, NAME);
+    }
+
+    String phoneNumber(long i) {
+        return string(i, PHONE);
+    }
+
+    String address(long i) {
+        return string(i, ADDRESS);
+    }
+
+    String specialization(long i) {
+        expect(i, OFFICER);
+        return string(i, EXTRA);
+    }
+
+    String department(long i) {
+        expect(i, MANAGER);
+        return string(i, EXTRA);
+    }
+
+    void printSalary(long i) {
+        System.out.println("Salary: " + salary(i));
+    }
+
+    // the block Main6 prints for an officer or a manager
+    void printDetails(long i) {
+        System.out.println("Name: " + name(i));
+        System.out.println("Age: " + age(i));
+        System.out.println("Phone Number: " + phoneNumber(i));
+        System.out.println("Address: " + address(i));
+        if (kind(i) == OFFICER) {
+            System.out.println("Specialization: " + specialization(i));
+        } else if (kind(i) == MANAGER) {
+            System.out.println("Department: " + department(i));
+        }
+        printSalary(i);
+    }
+
+    // sums a column straight from the records, no objects are created
+    double totalSalary() {
+        double total = 0;
+        for (long i = 0; i < size; i++) {
+            total += salary(i);
+        }
+        return total;
+    }
+
+    // direct memory used by records and strings
+    long bytes() {
+        return (long) records.size() * RECORDS_PER_PAGE * RECORD + (long) arena.size() * ARENA_PAGE;
+    }
+
+    void expect(long i, byte kind) {
+        if (kind(i) != kind) {
+            throw new IllegalStateException("employee " + i + " is not a " + (kind == OFFICER ? "Officer" : "Manager"));
+        }
+    }
+
+    ByteBuffer page(long i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("employee " + i + " of " + size);
+        }
+        return records.get((int) (i / RECORDS_PER_PAGE));
+    }
+
+    static int slot(long i) {
+        return (int) (i % RECORDS_PER_PAGE) * RECORD;
+    }
+
+    // strings are stored as an int byte length followed by the UTF-8 bytes and never span two arena pages
+    long putString(String s) {
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        int needed = 4 + utf8.length;
+        if (needed > ARENA_PAGE) {
+            throw new IllegalArgumentException("string too long for the arena: " + utf8.length + " bytes");
+        }
+        if (arenaEnd + needed > (long) arena.size() * ARENA_PAGE) {
+            arenaEnd = (long) arena.size() * ARENA_PAGE; // rest of the current page stays unused
+            arena.add(allocate(ARENA_PAGE));
+        }
+        long at = arenaEnd;
+        ByteBuffer page = arena.get((int) (at / ARENA_PAGE));
+        int offset = (int) (at % ARENA_PAGE);
+        page.putInt(offset, utf8.length);
+        page.put(offset + 4, utf8);
+        arenaEnd += needed;
+        return at;
+    }
+
+    String string(long i, int field) {
+        long at = page(i).getLong(slot(i) + field);
+        if (at == NONE) {
+            return null;
+        }
+        ByteBuffer page = arena.get((int) (at / ARENA_PAGE));
+        int offset = (int) (at % ARENA_PAGE);
+        byte[] utf8 = new byte[page.getInt(offset)];
+        page.get(offset + 4, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
+
+public class EmployeeStore11 {
+    // on-heap copies of Main6's classes for the load test, nested so they do not clash with Main6.java
+    static class Employee {
+        String name;
+        int age;
+        String phoneNumber;
+        String address;
+        double salary;
+    }
+
+    static class Officer extends Employee {
+        String specialization;
+    }
+
+    static class Manager extends Employee {
+        String department;
+    }
+
+    // usage: java EmployeeStore11                                   -> Main6's output from the store
+    //        java -Xmx4g -XX:MaxDirectMemorySize=12g EmployeeStore11 load heap|offheap [employees]
+    //        (default 5M employees; 100M needs about 11 GB of direct memory for the records and strings)
+    public static void main(String[] args) {
+        if (args.length > 1 && args[0].equals("load")) {
+            load(args[1].equals("heap"), args.length > 2 ? Long.parseLong(args[2]) : 5_000_000);
+            return;
+        }
+
+        EmployeeStore store = new EmployeeStore();
+        long officer = store.addOfficer("John Doe", 30, "1234567890", "123 Street, City", 50000, "IT");
+        long manager = store.addManager("Jane Smith", 40, "9876543210", "456 Avenue, City", 80000, "HR");
+
+        System.out.println("Officer Details:");
+        store.printDetails(officer);
+        System.out.println("\nManager Details:");
+        store.printDetails(manager);
+    }
+
+    // Loads n employees either as objects or into the store, then keeps allocating short-lived garbage the
+    // way a busy service would. With the records on the heap every old-generation cycle has to mark them;
+    // off-heap the collector only sees the garbage.
+    static void load(boolean heap, long n) {
+        long start = System.nanoTime();
+        Employee[] objects = null;
+        EmployeeStore store = null;
+        if (heap) {
+            objects = new Employee[Math.toIntExact(n)];
+            for (int i = 0; i < n; i++) {
+                Employee e = i % 2 == 0 ? new Officer() : new Manager();
+                e.name = "Employee " + i;
+                e.age = 20 + i % 45;
+                e.phoneNumber = String.valueOf(9_000_000_000L + i);
+                e.address = i + " Street, City";
+                e.salary = 30000 + i % 70000;
+                if (e instanceof Officer) {
+                    ((Officer) e).specialization = "IT";
+                } else {
+                    ((Manager) e).department = "HR";
+                }
+                objects[i] = e;
+            }
+        } else {
+            store = new EmployeeStore();
+            for (long i = 0; i < n; i++) {
+                String name = "Employee " + i, phone = String.valueOf(9_000_000_000L + i), address = i + " Street, City";
+                int age = (int) (20 + i % 45);
+                double salary = 30000 + i % 70000;
+                if (i % 2 == 0) {
+                    store.addOfficer(name, age, phone, address, salary, "IT");
+                } else {
+                    store.addManager(name, age, phone, address, salary, "HR");
+                }
+            }
+        }
+        long loadNanos = System.nanoTime() - start;
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        System.out.printf("%s: %,d employees loaded in %.1f s, heap used %,d MB, off-heap %,d MB%n",
+                heap ? "heap" : "offheap", n, loadNanos / 1e9, (rt.totalMemory() - rt.freeMemory()) >> 20,
+                store == null ? 0 : store.bytes() >> 20);
+
+        long gcCount = gcCount(), gcMillis = gcMillis();
+        start = System.nanoTime();
+        long sink = 0;
+        for (int i = 0; i < 20_000_000; i++) { // ~ 2 GB of short-lived garbage
+            byte[] garbage = new byte[64 + (i & 63)];
+            sink += garbage.length;
+            if (i % 4_000_000 == 0) {
+                long fullStart = System.nanoTime();
+                System.gc(); // a full collection has to walk every live object
+                System.out.printf("  full GC pause %.1f ms%n", (System.nanoTime() - fullStart) / 1e6);
+            }
+        }
+        double total = heap ? 0 : store.totalSalary();
+        if (heap) {
+            for (Employee e : objects) {
+                total += e.salary;
+            }
+        }
+        System.out.printf("churn %.1f s, %d GCs, %d ms in GC, salary total %.0f (%d)%n",
+                (System.nanoTime() - start) / 1e9, gcCount() - gcCount, gcMillis() - gcMillis, total, sink);
+    }
+
+    static long gcCount() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            n += gc.getCollectionCount();
+        }
+        return n;
+    }
+
+    static long gcMillis() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            n += gc.getCollectionTime();
+        }
+        return n;
+    }
+}
@@ -1,18 +1,152 @@
-import java.util.Scanner;
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Exact n! as a BigInteger.
+// n! = (odd part) * 2^(n - bitCount(n)), and the odd part is built from the products of the odd numbers
+// in (n/2, n], (n/4, n/2], ... (see oddPart). Each of those products is built as a balanced tree
+// (binary splitting) so BigInteger always multiplies numbers of similar size, and the halves of the
+// tree are computed in parallel on a fork-join pool.
+class FactorialEngine {
+    static final int SEQUENTIAL = 512; // below this many factors a subtree is multiplied on one thread
+
+    final ForkJoinPool pool;
+    final int cacheSize;
+    final Map<Integer, BigInteger> cache;
+
+    FactorialEngine(int cacheSize) {
+        this(ForkJoinPool.commonPool(), cacheSize);
+    }
+
+    FactorialEngine(ForkJoinPool pool, int cacheSize) {
+        this.pool = pool;
+        this.cacheSize = cacheSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) { // access order, so the eldest entry is the least recently used
+            protected boolean removeEldestEntry(Map.Entry<Integer, BigInteger> eldest) {
+                return size() > FactorialEngine.this.cacheSize;
+            }
+        };
+    }
+
+    BigInteger factorial(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("factorial of negative number " + n);
+        }
+        int from = 0;
+        BigInteger base = BigInteger.ONE;
+        synchronized (cache) {
+            BigInteger hit = cache.get(n);
+            if (hit != null) {
+                return hit;
+            }
+            // a cached m! with m < n saves the work for 1..m, n! = m! * (m+1)...n
+            Iterator<Map.Entry<Integer, BigInteger>> it = cache.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Integer, BigInteger> e = it.next();
+                if (e.getKey() < n && e.getKey() > from) {
+                    from = e.getKey();
+                    base = e.getValue();
+                }
+            }
+        }
+
+        BigInteger result;
+        if (from > 0 && n - from < n / 2) {
+            result = base.multiply(pool.invoke(new Product(from + 1, n, 1)));
+        } else {
+            result = oddPart(n).shiftLeft(n - Integer.bitCount(n));
+        }
+
+        synchronized (cache) {
+            cache.put(n, result);
+        }
+        return result;
+    }
+
+    BigInteger oddPart(int n) {
+        // odd m in (n/2^(k+1), n/2^k] shows up k+1 times in the odd part (as m, 2m, 4m, ... up to n),
+        // so walk the ranges from the smallest one up: p collects every range so far, odd collects p at each step
+        int levels = 32 - Integer.numberOfLeadingZeros(Math.max(1, n));
+        BigInteger p = BigInteger.ONE;
+        BigInteger odd = BigInteger.ONE;
+        for (int k = levels - 1; k >= 0; k--) {
+            int hi = n >> k;
+            int lo = hi / 2;
+            int first = (lo + 1) | 1;
+            int last = (hi & 1) == 1 ? hi : hi - 1;
+            if (first <= last) {
+                p = p.multiply(pool.invoke(new Product(first, last, 2)));
+            }
+            odd = odd.multiply(p);
+        }
+        return odd;
+    }
+
+    // product of from, from+step, ..., to (to is part of the sequence)
+    static class Product extends RecursiveTask<BigInteger> {
+        private static final long serialVersionUID = 1L;
+
+        final int from, to, step;
+
+        Product(int from, int to, int step) {
+            this.from = from;
+            this.to = to;
+            this.step = step;
+        }
+
+        protected BigInteger compute() {
+            int count = (to - from) / step + 1;
+            if (count <= SEQUENTIAL) {
+                return multiply(from, count);
+            }
+            int mid = from + (count / 2) * step;
+            Product left = new Product(from, mid - step, step);
+            left.fork();
+            BigInteger right = new Product(mid, to, step).compute();
+            return right.multiply(left.join());
+        }
+
+        // balanced split all the way down, small factors are packed into longs first
+        BigInteger multiply(int start, int count) {
+            if (count <= 8) {
+                BigInteger p = BigInteger.ONE;
+                long acc = 1;
+                for (int i = 0, v = start; i < count; i++, v += step) {
+                    if (acc > Long.MAX_VALUE / v) {
+                        p = p.multiply(BigInteger.valueOf(acc));
+                        acc = 1;
+                    }
+                    acc *= v;
+                }
+                return p.multiply(BigInteger.valueOf(acc));
+            }
+            int half = count / 2;
+            return multiply(start, half).multiply(multiply(start + half * step, count - half));
+        }
+    }
+}
+
 public class Factorial3 {
+    static final int MAX_PRINTED_DIGITS = 10_000;
+
     public static void main(String[] args) {
-        Scanner sc = new Scanner(System.in);
+        FactorialEngine engine = new FactorialEngine(16);
+        FastReader sc = FastReader.fromArgs(args);
         System.out.print("Enter the value: ");
         int value = sc.nextInt();
-        int result = 1;
         if (value >= 0) {
-            if (value == 0) {
-                System.out.println("Factorial of "+value+" is: "+result);
-            }else{
-                for (int i = value; i > 0; i--) {
-                    result *= i;
-                }
+            BigInteger result = engine.factorial(value);
+            // toString() on a huge result costs more than computing it, so the size check uses the bit
+            // length: a b-bit number has floor((b - 1) * log10(2)) + 1 or one more decimal digits
+            int bits = result.bitLength();
+            long digits = (long) (bits * Math.log10(2)) + 1;
+            if (digits <= MAX_PRINTED_DIGITS) {
                 System.out.println("Factorial of "+value+" is: "+result);
+            } else {
+                System.out.println("Factorial of "+value+" has about "+digits+" digits ("+bits+" bits), too many to print");
             }
         } else {
             System.out.println("Enter Positive Number!!");
@@ -0,0 +1,348 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+// Drop-in for the Scanner calls our console programs make (nextInt, nextLong, nextDouble, next, nextLine).
+// Scanner matches every token against a regex and builds a String for it; this reads raw bytes through
+// one 64 KB buffer and turns digits into numbers directly, so numbers are read without creating objects.
+// Tokens are separated by the same ASCII whitespace Scanner uses by default, and bad input throws the same
+// InputMismatchException / NoSuchElementException Scanner would (unlike Scanner, the bad token is consumed).
+// This is the only copy: the readers in 02_day, 04_day and 05_day compile against it from here, e.g.
+// javac -d . -sourcepath ../../Small_Assignments *.java in one of those code directories. FastReaderBench
+// and FastReaderTest sit next to it.
+public class FastReader implements Closeable {
+    static final int BUFFER = 1 << 16;
+    static final double[] POW10 = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    final InputStream in;
+    final Scanner scanner; // only set when running in plain Scanner mode
+    byte[] buf = new byte[BUFFER]; // only grows when hasNext() looks ahead over more than BUFFER bytes of whitespace
+    byte[] token = new byte[64];
+    int pos = 0;
+    int len = 0;
+
+    FastReader(InputStream in) {
+        this.in = in;
+        this.scanner = null;
+    }
+
+    FastReader(Path file) throws IOException {
+        this(Files.newInputStream(file));
+    }
+
+    private FastReader(Scanner scanner) {
+        this.in = null;
+        this.scanner = scanner;
+    }
+
+    // "--fast" anywhere in args reads System.in through the byte buffer, otherwise it is a plain Scanner
+    static FastReader fromArgs(String[] args) {
+        for (String a : args) {
+            if (a.equals("--fast")) {
+                return new FastReader(System.in);
+            }
+        }
+        return new FastReader(new Scanner(System.in));
+    }
+
+    static boolean isWhitespace(int c) {
+        return c == ' ' || (c >= '\t' && c <= '\r') || (c >= 0x1C && c <= 0x1F);
+    }
+
+    int read() {
+        if (pos == len) {
+            try {
+                len = in.read(buf, 0, buf.length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            pos = 0;
+            if (len <= 0) {
+                len = 0;
+                return -1;
+            }
+        }
+        return buf[pos++] & 0xFF; // unsigned, so a 0xFF byte is not mistaken for end of input
+    }
+
+    int peek() {
+        int c = read();
+        if (c != -1) {
+            pos--;
+        }
+        return c;
+    }
+
+    // first byte of the next token, or NoSuchElementException at end of input
+    int skipWhitespace() {
+        int c;
+        while ((c = read()) != -1 && isWhitespace(c)) {
+        }
+        if (c == -1) {
+            throw new NoSuchElementException();
+        }
+        return c;
+    }
+
+    void skipToken(int c) {
+        while (c != -1 && !isWhitespace(c)) {
+            c = read();
+        }
+        if (c != -1) {
+            pos--;
+        }
+    }
+
+    // moves the unread bytes to the front of buf and reads more behind them, false at end of input
+    boolean fill() {
+        int unread = len - pos;
+        if (unread == buf.length) {
+            buf = Arrays.copyOf(buf, buf.length * 2);
+        }
+        System.arraycopy(buf, pos, buf, 0, unread);
+        pos = 0;
+        len = unread;
+        int n;
+        try {
+            n = in.read(buf, len, buf.length - len);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (n <= 0) {
+            return false;
+        }
+        len += n;
+        return true;
+    }
+
+    // looks ahead without consuming anything, like Scanner: a nextLine() afterwards still gets the rest
+    // of the current line
+    boolean hasNext() {
+        if (scanner != null) {
+            return scanner.hasNext();
+        }
+        for (int i = pos; ; i++) {
+            if (i == len) {
+                int scanned = i - pos;
+                if (!fill()) {
+                    return false;
+                }
+                i = scanned;
+            }
+            if (!isWhitespace(buf[i])) {
+                return true;
+            }
+        }
+    }
+
+    int nextInt() {
+        if (scanner != null) {
+            return scanner.nextInt();
+        }
+        long v = nextLong();
+        if (v < Integer.MIN_VALUE || v > Integer.MAX_VALUE) {
+            throw new InputMismatchException("For input string: \"" + v + "\"");
+        }
+        return (int) v;
+    }
+
+    long nextLong() {
+        if (scanner != null) {
+            return scanner.nextLong();
+        }
+        int c = skipWhitespace();
+        boolean negative = c == '-';
+        if (c == '-' || c == '+') {
+            c = read();
+        }
+        if (c < '0' || c > '9') {
+            skipToken(c);
+            throw new InputMismatchException("not an integer");
+        }
+        long v = 0;
+        for (; c >= '0' && c <= '9'; c = read()) {
+            int d = c - '0';
+            // accumulate as a negative number so Long.MIN_VALUE fits
+            if (v < (Long.MIN_VALUE + d) / 10) {
+                skipToken(c);
+                throw new InputMismatchException("integer out of range");
+            }
+            v = v * 10 - d;
+        }
+        if (c != -1 && !isWhitespace(c)) {
+            skipToken(c);
+            throw new InputMismatchException("not an integer");
+        }
+        if (c != -1) {
+            pos--; // the delimiter stays, so nextInt() then nextLine() returns the rest of the line like Scanner
+        }
+        if (!negative && v == Long.MIN_VALUE) {
+            throw new InputMismatchException("integer out of range");
+        }
+        return negative ? v : -v;
+    }
+
+    // copies the next token into token[] (grown when needed, so reused across calls) and returns its length
+    int readToken() {
+        int c = skipWhitespace();
+        int n = 0;
+        for (; c != -1 && !isWhitespace(c); c = read()) {
+            if (n == token.length) {
+                token = Arrays.copyOf(token, n * 2);
+            }
+            token[n++] = (byte) c;
+        }
+        if (c != -1) {
+            pos--;
+        }
+        return n;
+    }
+
+    double nextDouble() {
+        if (scanner != null) {
+            return scanner.nextDouble();
+        }
+        int n = readToken();
+        int i = 0;
+        boolean negative = token[0] == '-';
+        if (token[0] == '-' || token[0] == '+') {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0, fraction = 0;
+        boolean seenDigit = false, seenDot = false;
+        for (; i < n; i++) {
+            int c = token[i];
+            if (c >= '0' && c <= '9') {
+                seenDigit = true;
+                if (mantissa != 0 || c != '0') {
+                    digits++;
+                }
+                if (digits <= 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                }
+                if (seenDot) {
+                    fraction++;
+                }
+            } else if (c == '.' && !seenDot) {
+                seenDot = true;
+            } else {
+                break;
+            }
+        }
+        // up to 15 significant digits and 10^22 both convert exactly, so one division rounds correctly
+        if (i == n && seenDigit && digits <= 15 && fraction <= 22) {
+            double v = mantissa / POW10[fraction];
+            return negative ? -v : v;
+        }
+        // exponents, long mantissas, NaN, Infinity: hand the token to the JDK parser (allocates). That parser
+        // also takes Java literal forms Scanner rejects (1d, 2f, 0x1p3), so the token is checked first
+        String s = new String(token, 0, n, StandardCharsets.ISO_8859_1);
+        if (!isDecimal(token, n)) {
+            throw new InputMismatchException("For input string: \"" + s + "\"");
+        }
+        return Double.parseDouble(s);
+    }
+
+    // [+-]? followed by NaN, Infinity, or digits with an optional . and an optional [eE][+-]?digits exponent:
+    // what Scanner.nextDouble() accepts in an English locale, minus grouping separators (1,000.5) and hex
+    // floats (0x1.8p1), which no reader here is expected to type and are rejected
+    static boolean isDecimal(byte[] t, int n) {
+        int i = 0;
+        if (i < n && (t[i] == '-' || t[i] == '+')) {
+            i++;
+        }
+        if (matches(t, i, n, "NaN") || matches(t, i, n, "Infinity")) {
+            return true;
+        }
+        int digits = 0;
+        for (; i < n && t[i] >= '0' && t[i] <= '9'; i++) {
+            digits++;
+        }
+        if (i < n && t[i] == '.') {
+            for (i++; i < n && t[i] >= '0' && t[i] <= '9'; i++) {
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < n && (t[i] == 'e' || t[i] == 'E')) {
+            i++;
+            if (i < n && (t[i] == '-' || t[i] == '+')) {
+                i++;
+            }
+            int exponent = i;
+            for (; i < n && t[i] >= '0' && t[i] <= '9'; i++) {
+            }
+            if (i == exponent) {
+                return false;
+            }
+        }
+        return i == n;
+    }
+
+    static boolean matches(byte[] t, int from, int n, String word) {
+        if (n - from != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (t[from + i] != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    String next() {
+        if (scanner != null) {
+            return scanner.next();
+        }
+        int n = readToken();
+        return new String(token, 0, n, StandardCharsets.UTF_8);
+    }
+
+    // rest of the current line like Scanner.nextLine(), without the line break; \n, \r\n and a lone \r
+    // all end a line
+    String nextLine() {
+        if (scanner != null) {
+            return scanner.nextLine();
+        }
+        int c = read();
+        if (c == -1) {
+            throw new NoSuchElementException("No line found");
+        }
+        int n = 0;
+        for (; c != -1 && c != '\n' && c != '\r'; c = read()) {
+            if (n == token.length) {
+                token = Arrays.copyOf(token, n * 2);
+            }
+            token[n++] = (byte) c;
+        }
+        if (c == '\r' && peek() == '\n') {
+            pos++;
+        }
+        return new String(token, 0, n, StandardCharsets.UTF_8);
+    }
+
+    public void close() {
+        if (scanner != null) {
+            scanner.close();
+            return;
+        }
+        try {
+            in.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.StringTokenizer;
+
+// How fast FastReader reads console-style input compared with Scanner and BufferedReader + StringTokenizer.
+public class FastReaderBench {
+    // usage: java FastReaderBench [n] -> reads n ints with Scanner, BufferedReader and FastReader and prints ints/sec
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        StringBuilder sb = new StringBuilder();
+        Random r = new Random(1);
+        for (int i = 0; i < n; i++) {
+            sb.append(r.nextInt()).append(i % 10 == 9 ? '\n' : ' ');
+        }
+        byte[] input = sb.toString().getBytes(StandardCharsets.US_ASCII);
+        sb = null;
+
+        for (int round = 0; round < 2; round++) { // first round warms up the JIT
+            long start = System.nanoTime();
+            long sum = 0;
+            try (Scanner sc = new Scanner(new ByteArrayInputStream(input))) {
+                for (int i = 0; i < n; i++) {
+                    sum += sc.nextInt();
+                }
+            }
+            report("Scanner", n, System.nanoTime() - start, sum);
+
+            start = System.nanoTime();
+            sum = 0;
+            try (BufferedReader br = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(input), StandardCharsets.US_ASCII), FastReader.BUFFER)) {
+                String line;
+                while ((line = br.readLine()) != null) {
+                    StringTokenizer st = new StringTokenizer(line);
+                    while (st.hasMoreTokens()) {
+                        sum += Integer.parseInt(st.nextToken());
+                    }
+                }
+            }
+            report("BufferedReader", n, System.nanoTime() - start, sum);
+
+            start = System.nanoTime();
+            sum = 0;
+            try (FastReader fr = new FastReader(new ByteArrayInputStream(input))) {
+                for (int i = 0; i < n; i++) {
+                    sum += fr.nextInt();
+                }
+            }
+            report("FastReader", n, System.nanoTime() - start, sum);
+        }
+    }
+
+    static void report(String name, int n, long nanos, long sum) {
+        System.out.printf("%-15s %6.1f M ints/s  (sum %d)%n", name, n * 1e3 / nanos, sum);
+    }
+}
@@ -0,0 +1,168 @@
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Scanner;
+
+// Checks that FastReader returns what Scanner (in Locale.US) returns for the same calls on the same input,
+// numbers included (nextDouble() must reject the 1d / 2f / 0x1p3 forms Double.parseDouble takes), in particular
+// nextInt()/next() followed by nextLine(), which has to leave the line break for nextLine() to find.
+// Every input is read twice, once in one piece and once a byte per read() so every buffer refill and
+// look-ahead crosses a boundary. Prints the number of checked cases or throws on the first difference.
+//   java FastReaderTest [randomCases]
+public class FastReaderTest {
+    static final String[] OPS = { "nextInt", "nextLong", "nextDouble", "next", "nextLine", "hasNext" };
+    static final String[] TOKENS = { "5", "-12", "+7", "0", "hello", "world", "2147483648", "1.5", "-0.25",
+            ".5", "5.", "-0", "1e3", "1E-2", "1.5e+05", "1e400", "12345678901234567890.5", "NaN", "-Infinity",
+            "1d", "2f", "0x1p3", "1e", ".", "-.", "infinity", "0.000000000000000000000000001234" };
+    static final String[] SEPARATORS = { " ", "  ", "\t", "\n", "\r\n", "\r", "\n\n" };
+
+    public static void main(String[] args) {
+        int random = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int cases = 0;
+
+        cases += check("5\nhello world\n7", "nextInt", "nextLine", "nextLine", "nextInt");
+        cases += check("5\n", "nextInt", "nextLine");
+        cases += check("5", "nextInt", "nextLine");
+        cases += check("5 rest of line\nnext", "nextInt", "nextLine", "nextLine");
+        cases += check("word\nline", "next", "nextLine", "nextLine");
+        cases += check("5\r\nab\r\ncd", "nextInt", "nextLine", "nextLine", "nextLine");
+        cases += check("5\rab\rcd\r", "nextInt", "nextLine", "nextLine", "nextLine", "nextLine");
+        cases += check("\r\n\r\n", "nextLine", "nextLine", "nextLine");
+        cases += check("5\n  \n 6 x", "nextInt", "hasNext", "nextLine", "nextLine", "nextInt", "nextLine");
+        cases += check("   \n\n  ", "hasNext", "nextLine", "hasNext");
+        cases += check("h\u00e9llo 5 w\u00f6rld\n6", "next", "nextInt", "nextLine", "nextInt");
+        // a raw 0xFF byte (\u00ff in a Latin-1 file) in the middle of the input must not read as end of input
+        byte[] latin1 = "5 \u00ff 6\nab\u00ffcd\n7".getBytes(StandardCharsets.ISO_8859_1);
+        cases += check(latin1, "nextInt", "next", "nextInt", "nextLine", "nextLine", "hasNext", "nextInt");
+        cases += check(latin1, "nextInt", "hasNext", "nextInt");
+        cases += check("1.5 -0.25 .5 5. 1e3 1E-2 NaN -Infinity 1e400", "nextDouble", "nextDouble", "nextDouble",
+                "nextDouble", "nextDouble", "nextDouble", "nextDouble", "nextDouble", "nextDouble");
+        for (String bad : new String[] { "1d", "2f", "0x1p3", "1e", ".", "-.", "infinity", "1_0" }) {
+            cases += check(bad + " 7", "nextDouble", "nextLine");
+        }
+
+        Random r = new Random(13);
+        for (int i = 0; i < random; i++) {
+            StringBuilder input = new StringBuilder();
+            int tokens = r.nextInt(6);
+            for (int t = 0; t < tokens; t++) {
+                if (r.nextBoolean()) {
+                    input.append(SEPARATORS[r.nextInt(SEPARATORS.length)]);
+                }
+                input.append(TOKENS[r.nextInt(TOKENS.length)]);
+            }
+            if (r.nextBoolean()) {
+                input.append(SEPARATORS[r.nextInt(SEPARATORS.length)]);
+            }
+            String[] ops = new String[1 + r.nextInt(8)];
+            for (int k = 0; k < ops.length; k++) {
+                ops[k] = OPS[r.nextInt(OPS.length)];
+            }
+            cases += check(input.toString(), ops);
+        }
+        System.out.println(cases + " cases read the same with FastReader and Scanner");
+    }
+
+    static int check(String input, String... ops) {
+        return check(input.getBytes(StandardCharsets.UTF_8), ops);
+    }
+
+    // both readers decode as UTF-8, so bytes that are not valid UTF-8 come back as U+FFFD from either one
+    static int check(byte[] bytes, String... ops) {
+        String input = new String(bytes, StandardCharsets.ISO_8859_1);
+        Scanner scanner = new Scanner(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8);
+        List<String> expected = run(new FastReaderProbe(scanner.useLocale(Locale.US)), ops);
+        for (InputStream in : new InputStream[] { new ByteArrayInputStream(bytes), new Trickle(bytes) }) {
+            List<String> actual = run(new FastReaderProbe(new FastReader(in)), ops);
+            if (!actual.equals(expected)) {
+                throw new IllegalStateException("input " + escape(input) + " with " + String.join(", ", ops)
+                        + ": Scanner gave " + expected + " but FastReader gave " + actual
+                        + (in instanceof Trickle ? " (one byte per read)" : ""));
+            }
+        }
+        return 1;
+    }
+
+    // results of the calls in order; the first exception ends the list, since after a bad token the two
+    // readers are allowed to differ (FastReader consumes it, Scanner does not)
+    static List<String> run(FastReaderProbe reader, String[] ops) {
+        List<String> results = new ArrayList<>();
+        for (String op : ops) {
+            try {
+                results.add(op + "=" + escape(reader.call(op)));
+            } catch (RuntimeException e) {
+                results.add(op + " threw " + e.getClass().getSimpleName());
+                break;
+            }
+        }
+        return results;
+    }
+
+    static String escape(String s) {
+        return "\"" + s.replace("\r", "\\r").replace("\n", "\\n").replace("\t", "\\t") + "\"";
+    }
+
+    // the same calls on either reader
+    static class FastReaderProbe {
+        final Scanner scanner;
+        final FastReader fast;
+
+        FastReaderProbe(Scanner scanner) {
+            this.scanner = scanner;
+            this.fast = null;
+        }
+
+        FastReaderProbe(FastReader fast) {
+            this.scanner = null;
+            this.fast = fast;
+        }
+
+        String call(String op) {
+            switch (op) {
+                case "nextInt":
+                    return String.valueOf(scanner != null ? scanner.nextInt() : fast.nextInt());
+                case "nextLong":
+                    return String.valueOf(scanner != null ? scanner.nextLong() : fast.nextLong());
+                case "nextDouble":
+                    return String.valueOf(scanner != null ? scanner.nextDouble() : fast.nextDouble());
+                case "next":
+                    return scanner != null ? scanner.next() : fast.next();
+                case "nextLine":
+                    return scanner != null ? scanner.nextLine() : fast.nextLine();
+                case "hasNext":
+                    return String.valueOf(scanner != null ? scanner.hasNext() : fast.hasNext());
+                default:
+                    throw new IllegalArgumentException("unknown call " + op);
+            }
+        }
+    }
+
+    // hands out one byte per read()
+    static class Trickle extends InputStream {
+        final byte[] bytes;
+        int pos = 0;
+
+        Trickle(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        public int read() {
+            return pos < bytes.length ? bytes[pos++] & 0xFF : -1;
+        }
+
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (pos == bytes.length) {
+                return -1;
+            }
+            b[off] = bytes[pos++];
+            return 1;
+        }
+    }
+}
@@ -1,8 +1,6 @@
-import java.util.Scanner;
-
 public class LargestNum5 {
     public static void main(String[] args) {
-        Scanner sc = new Scanner(System.in);
+        FastReader sc = FastReader.fromArgs(args);
         int i = 0;
         while (i < 3) {
             System.out.println("Enter three values: ");
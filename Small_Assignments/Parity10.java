@@ -0,0 +1,125 @@
+import java.util.Random;
+import java.util.stream.IntStream;
+
+// checkEvenOdd2 for whole arrays: a packed bitmask of the odd positions and a stable even/odd split.
+// Work is cut into chunks of CHUNK values (a multiple of 64, so every chunk owns whole mask words)
+// and the chunks run on the fork-join pool when parallel is true.
+class ParityEngine {
+    static final int CHUNK = 1 << 16;
+
+    // same test as checkEvenOdd2, value % 2 == 0
+    static boolean isOdd(int value) {
+        return value % 2 != 0;
+    }
+
+    static String verdict(int value) {
+        return isOdd(value) ? value + " is Odd" : value + " is Even";
+    }
+
+    static IntStream chunks(int n, boolean parallel) {
+        IntStream ids = IntStream.range(0, (n + CHUNK - 1) / CHUNK);
+        return parallel ? ids.parallel() : ids;
+    }
+
+    // bit i of the result is 1 when a[i] is odd
+    static long[] oddMask(int[] a, boolean parallel) {
+        long[] mask = new long[(a.length + 63) >>> 6];
+        chunks(a.length, parallel).forEach(c -> {
+            int end = (int) Math.min(a.length, (c + 1L) * CHUNK);
+            for (int w = c * CHUNK >>> 6; (long) w << 6 < end; w++) {
+                long bits = 0;
+                for (int i = w << 6, j = 0; i < end && j < 64; i++, j++) {
+                    bits |= (long) (a[i] & 1) << j; // lowest bit is the parity, also for negative numbers
+                }
+                mask[w] = bits;
+            }
+        });
+        return mask;
+    }
+
+    static boolean isOdd(long[] mask, int i) {
+        return (mask[i >>> 6] & (1L << i)) != 0;
+    }
+
+    // writes all even values and then all odd values into out, each group in input order; returns the even count
+    static int partition(int[] a, int[] out, boolean parallel) {
+        if (out.length < a.length) {
+            throw new IllegalArgumentException("out is shorter than the input: " + out.length + " < " + a.length);
+        }
+        long[] mask = oddMask(a, parallel);
+        int chunks = (a.length + CHUNK - 1) / CHUNK;
+        int[] odds = new int[chunks];
+        chunks(a.length, parallel).forEach(c -> {
+            int n = 0;
+            for (int w = c * CHUNK >>> 6, end = (int) Math.min(mask.length, (c + 1L) * CHUNK >>> 6); w < end; w++) {
+                n += Long.bitCount(mask[w]);
+            }
+            odds[c] = n;
+        });
+
+        // where each chunk starts writing its evens and its odds
+        int[] evenStart = new int[chunks];
+        int[] oddStart = new int[chunks];
+        int evens = 0;
+        for (int c = 0; c < chunks; c++) {
+            evenStart[c] = evens;
+            evens += Math.min(CHUNK, a.length - c * CHUNK) - odds[c];
+        }
+        int totalEvens = evens;
+        for (int c = 0, o = totalEvens; c < chunks; c++) {
+            oddStart[c] = o;
+            o += odds[c];
+        }
+
+        chunks(a.length, parallel).forEach(c -> {
+            int e = evenStart[c], o = oddStart[c];
+            for (int i = c * CHUNK, end = (int) Math.min(a.length, (long) i + CHUNK); i < end; i++) {
+                if ((a[i] & 1) == 0) {
+                    out[e++] = a[i];
+                } else {
+                    out[o++] = a[i];
+                }
+            }
+        });
+        return totalEvens;
+    }
+}
+
+public class Parity10 {
+    // usage: java -Xmx4g Parity10 [n]
+    public static void main(String[] args) {
+        int[] demo = { 4, 7, -3, 0, 10 };
+        long[] demoMask = ParityEngine.oddMask(demo, false);
+        StringBuilder bits = new StringBuilder();
+        for (int i = 0; i < demo.length; i++) {
+            System.out.println(ParityEngine.verdict(demo[i]));
+            bits.append(ParityEngine.isOdd(demoMask, i) ? '1' : '0');
+        }
+        System.out.println("odd mask: " + bits);
+        System.out.println();
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100_000_000;
+        int[] data = new Random(10).ints(n).toArray();
+        int[] out = new int[n];
+        for (int round = 0; round < 3; round++) { // first rounds warm up the JIT
+            for (boolean parallel : new boolean[] { false, true }) {
+                long start = System.nanoTime();
+                long[] mask = ParityEngine.oddMask(data, parallel);
+                long maskNanos = System.nanoTime() - start;
+                start = System.nanoTime();
+                int evens = ParityEngine.partition(data, out, parallel);
+                long splitNanos = System.nanoTime() - start;
+
+                for (int i = 0; i < n; i += 9973) { // spot check against the single-value test
+                    if (ParityEngine.isOdd(mask, i) != ParityEngine.isOdd(data[i])) {
+                        throw new IllegalStateException("mask disagrees with isOdd at " + i);
+                    }
+                }
+                // mask is 1 bit per value, partition adds the output array (4 bytes) and one more mask
+                System.out.printf("%-10s mask %7.1f M values/s  partition %7.1f M values/s  evens=%d  %.3f + 4 bytes/value%n",
+                        parallel ? "parallel" : "sequential", n * 1e3 / maskNanos, n * 1e3 / splitNanos, evens,
+                        mask.length * 8.0 / n);
+            }
+        }
+    }
+}
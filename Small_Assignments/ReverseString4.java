@@ -1,17 +1,142 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
 import java.util.Scanner;
+
+class StringReverser {
+    // one pass over the chars, StringBuilder.reverse() keeps surrogate pairs (emoji etc.) in the right order
+    static String reverse(String s) {
+        return new StringBuilder(s).reverse().toString();
+    }
+
+    static final int CHUNK = 1 << 20;
+
+    // Reverses a UTF-8 file character by character, reading it from the end in 1 MB chunks,
+    // so memory stays at two chunk buffers no matter how big the file is.
+    static void reverseFile(Path in, Path out) throws IOException {
+        try (FileChannel src = FileChannel.open(in, StandardOpenOption.READ);
+                FileChannel dst = FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer chunk = ByteBuffer.allocate(CHUNK);
+            ByteBuffer reversed = ByteBuffer.allocate(CHUNK);
+            long end = src.size();
+            while (end > 0) {
+                long start = Math.max(0, end - CHUNK);
+                chunk.clear().limit((int) (end - start));
+                readFully(src, chunk, start);
+                // a character must not be cut in half: skip continuation bytes (10xxxxxx) at the front,
+                // they belong to the character that starts in the previous chunk
+                int skip = 0;
+                while (start > 0 && skip < chunk.limit() && (chunk.get(skip) & 0xC0) == 0x80) {
+                    skip++;
+                }
+                if (skip == chunk.limit()) {
+                    throw new IOException("not valid UTF-8 near byte " + start);
+                }
+                int n = reverseUtf8(chunk.array(), skip, chunk.limit(), reversed.array());
+                reversed.clear().limit(n);
+                while (reversed.hasRemaining()) {
+                    dst.write(reversed);
+                }
+                end = start + skip;
+            }
+        }
+    }
+
+    static void readFully(FileChannel ch, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            int n = ch.read(buf, position + buf.position());
+            if (n < 0) {
+                throw new IOException("file shrank while reading");
+            }
+        }
+    }
+
+    // writes the characters of src[from, to) in reverse order into out, the bytes of each character stay in order
+    static int reverseUtf8(byte[] src, int from, int to, byte[] out) {
+        int o = 0;
+        int i = to;
+        while (i > from) {
+            int charEnd = i;
+            i--;
+            while (i > from && (src[i] & 0xC0) == 0x80) { // walk back to the lead byte
+                i--;
+            }
+            for (int j = i; j < charEnd; j++) {
+                out[o++] = src[j];
+            }
+        }
+        return o;
+    }
+}
+
 public class ReverseString4{
-    public static void main(String[] args) {
+    // usage: java ReverseString4                      -> asks for a line
+    //        java ReverseString4 file <in> <out>
+    //        java ReverseString4 bench [maxMB]
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("file")) {
+            StringReverser.reverseFile(Paths.get(args[1]), Paths.get(args[2]));
+            return;
+        }
+        if (args.length >= 1 && args[0].equals("bench")) {
+            bench(args.length > 1 ? Integer.parseInt(args[1]) : 64);
+            return;
+        }
+
         Scanner sc = new Scanner(System.in);
         System.out.print("Enter the string: ");
         String s = sc.nextLine();
 
-        String[] sArr = s.split("");
-        String revString = "";
-        for (int i = sArr.length-1; i >= 0; i--) {
-            revString += sArr[i];
-        }
+        String revString = StringReverser.reverse(s);
 
         System.out.println(revString);
         sc.close();
     }
-}
\ No newline at end of file
+
+    // 1 KB up to maxMB, in memory and through a temp file, mixed ASCII / 2-byte / 4-byte (surrogate pair) text
+    static void bench(int maxMB) throws IOException {
+        String[] pieces = { "a", "b", "c", " ", "\u00e9", "\u00df", "\ud83d\ude00", "\ud834\udd1e" };
+        Random r = new Random(4);
+        for (long size = 1024; size <= (long) maxMB << 20; size *= 16) {
+            StringBuilder sb = new StringBuilder();
+            while (sb.length() < size) {
+                sb.append(pieces[r.nextInt(pieces.length)]);
+            }
+            String s = sb.toString();
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+
+            int reps = (int) Math.max(1, (64L << 20) / size);
+            long start = System.nanoTime();
+            String rev = null;
+            for (int i = 0; i < reps; i++) {
+                rev = StringReverser.reverse(s);
+            }
+            double memory = (double) utf8.length * reps / 1e6 / ((System.nanoTime() - start) / 1e9);
+            if (!StringReverser.reverse(rev).equals(s)) {
+                throw new IllegalStateException("reverse twice does not give the input back");
+            }
+
+            Path in = Files.createTempFile("rev-in", ".txt");
+            Path out = Files.createTempFile("rev-out", ".txt");
+            try {
+                Files.write(in, utf8);
+                start = System.nanoTime();
+                StringReverser.reverseFile(in, out);
+                double file = utf8.length / 1e6 / ((System.nanoTime() - start) / 1e9);
+                if (!new String(Files.readAllBytes(out), StandardCharsets.UTF_8).equals(rev)) {
+                    throw new IllegalStateException("file reverse differs from in-memory reverse");
+                }
+                System.out.printf("%,12d bytes  in memory %8.1f MB/s  file %8.1f MB/s%n", utf8.length, memory, file);
+            } finally {
+                Files.deleteIfExists(in);
+                Files.deleteIfExists(out);
+            }
+        }
+    }
+}
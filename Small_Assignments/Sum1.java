@@ -1,5 +1,3 @@
-import java.util.Scanner;
-
 class Sum {
     int num1;
     int num2;
@@ -17,7 +15,7 @@ class Sum {
 
 public class Sum1 {
     public static void main(String[] args) {
-        Scanner sc = new Scanner(System.in);
+        FastReader sc = FastReader.fromArgs(args);
         System.out.println("Enter Two values:");
         int num1 = sc.nextInt();
         int num2 = sc.nextInt();
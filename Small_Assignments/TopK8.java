@@ -0,0 +1,217 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// LargestNum5 for any number of values: one pass, memory is k longs no matter how long the input is
+class StreamingStats {
+    final int k;
+    final long[] heap; // min-heap of the k largest values seen so far, heap[0] is the smallest of them
+    int size = 0;
+    long count = 0;
+    long max = Long.MIN_VALUE;
+    long min = Long.MAX_VALUE;
+
+    StreamingStats(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        this.k = k;
+        this.heap = new long[k];
+    }
+
+    void accept(long v) {
+        count++;
+        if (v > max) {
+            max = v;
+        }
+        if (v < min) {
+            min = v;
+        }
+        offer(v);
+    }
+
+    // keeps v if it is among the k largest so far
+    void offer(long v) {
+        if (size < k) {
+            heap[size] = v;
+            siftUp(size++);
+        } else if (k > 0 && v > heap[0]) {
+            heap[0] = v;
+            siftDown(0);
+        }
+    }
+
+    // folds another chunk's result into this one, the outcome is the same as one pass over both chunks
+    void merge(StreamingStats other) {
+        count += other.count;
+        max = Math.max(max, other.max);
+        min = Math.min(min, other.min);
+        for (int i = 0; i < other.size; i++) {
+            offer(other.heap[i]);
+        }
+    }
+
+    // the k largest values, largest first
+    long[] topK() {
+        long[] out = Arrays.copyOf(heap, size);
+        Arrays.sort(out);
+        for (int i = 0, j = out.length - 1; i < j; i++, j--) {
+            long t = out[i];
+            out[i] = out[j];
+            out[j] = t;
+        }
+        return out;
+    }
+
+    void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (heap[parent] <= heap[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    void siftDown(int i) {
+        while (true) {
+            int l = 2 * i + 1, r = l + 1, smallest = i;
+            if (l < size && heap[l] < heap[smallest]) {
+                smallest = l;
+            }
+            if (r < size && heap[r] < heap[smallest]) {
+                smallest = r;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    void swap(int a, int b) {
+        long t = heap[a];
+        heap[a] = heap[b];
+        heap[b] = t;
+    }
+
+    static StreamingStats of(FastReader in, int k) {
+        StreamingStats stats = new StreamingStats(k);
+        while (in.hasNext()) {
+            stats.accept(in.nextLong());
+        }
+        return stats;
+    }
+
+    // Splits the file into one byte range per thread. Every range boundary is moved forward to the next
+    // whitespace byte so no number is cut in two, each range is scanned on its own, then the results are merged.
+    static StreamingStats ofFile(Path file, int k, int threads) throws Exception {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            long[] bounds = new long[threads + 1];
+            for (int t = 1; t < threads; t++) {
+                bounds[t] = Math.max(bounds[t - 1], nextWhitespace(ch, size * t / threads, size));
+            }
+            bounds[threads] = size;
+
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<StreamingStats>> parts = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    long from = bounds[t], to = bounds[t + 1];
+                    parts.add(pool.submit(() -> of(new FastReader(new RegionStream(ch, from, to)), k)));
+                }
+                StreamingStats total = new StreamingStats(k);
+                for (Future<StreamingStats> part : parts) {
+                    total.merge(part.get());
+                }
+                return total;
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    static long nextWhitespace(FileChannel ch, long pos, long size) throws IOException {
+        ByteBuffer one = ByteBuffer.allocate(1);
+        while (pos < size) {
+            one.clear();
+            ch.read(one, pos);
+            if (FastReader.isWhitespace(one.get(0))) {
+                return pos;
+            }
+            pos++;
+        }
+        return size;
+    }
+}
+
+// reads bytes [from, to) of a file with positional reads, so several of these can share one channel
+class RegionStream extends InputStream {
+    final FileChannel ch;
+    long pos;
+    final long end;
+
+    RegionStream(FileChannel ch, long from, long to) {
+        this.ch = ch;
+        this.pos = from;
+        this.end = to;
+    }
+
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+    }
+
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (pos >= end) {
+            return -1;
+        }
+        ByteBuffer buf = ByteBuffer.wrap(b, off, (int) Math.min(len, end - pos));
+        int n = ch.read(buf, pos);
+        if (n > 0) {
+            pos += n;
+        }
+        return n;
+    }
+}
+
+public class TopK8 {
+    // usage: java TopK8 [k] < numbers.txt          -> one pass over standard input
+    //        java TopK8 <k> <file> [threads]       -> file split into chunks, one per thread
+    public static void main(String[] args) throws Exception {
+        int k = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        StreamingStats stats;
+        long start = System.nanoTime();
+        if (args.length > 1) {
+            Path file = Paths.get(args[1]);
+            int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+            stats = StreamingStats.ofFile(file, k, threads);
+        } else {
+            stats = StreamingStats.of(new FastReader(System.in), k);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (stats.count == 0) {
+            System.out.println("No numbers given");
+            return;
+        }
+        System.out.println("Count: " + stats.count);
+        System.out.println("The largest number is: " + stats.max);
+        System.out.println("The smallest number is: " + stats.min);
+        System.out.println("Top " + k + ": " + Arrays.toString(stats.topK()));
+        System.out.printf("%.1f M numbers/s%n", stats.count * 1e3 / elapsed);
+    }
+}
@@ -1,8 +1,6 @@
-import java.util.Scanner;
-
 public class checkEvenOdd2 {
     public static void main(String[] args) {
-        Scanner sc = new Scanner(System.in);
+        FastReader sc = FastReader.fromArgs(args);
         
         System.out.print("Enter the value: ");
         int value = sc.nextInt();
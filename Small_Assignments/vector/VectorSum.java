@@ -0,0 +1,85 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// SumKernel on SIMD registers through the incubating Vector API, picked up by BulkSum.best() when
+// the program runs with --add-modules jdk.incubator.vector. Each loop handles SPECIES.length() values
+// per step and finishes the leftover tail with plain scalar code. It sits in its own directory because
+// it only compiles with that module added, see the usage in BulkSum9.java.
+public class VectorSum implements SumKernel {
+    static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+    public void add(int[] a, int[] b, int[] out) {
+        int n = ScalarSum.check(a.length, b.length, out.length);
+        int i = 0;
+        for (int bound = INTS.loopBound(n); i < bound; i += INTS.length()) {
+            IntVector.fromArray(INTS, a, i).add(IntVector.fromArray(INTS, b, i)).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            out[i] = a[i] + b[i];
+        }
+    }
+
+    public void add(long[] a, long[] b, long[] out) {
+        int n = ScalarSum.check(a.length, b.length, out.length);
+        int i = 0;
+        for (int bound = LONGS.loopBound(n); i < bound; i += LONGS.length()) {
+            LongVector.fromArray(LONGS, a, i).add(LongVector.fromArray(LONGS, b, i)).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            out[i] = a[i] + b[i];
+        }
+    }
+
+    // ints are widened to long lanes before adding, so the total cannot wrap
+    public long total(int[] a) {
+        LongVector acc = LongVector.zero(LONGS);
+        int parts = INTS.length() / LONGS.length(); // an int vector widens into this many long vectors
+        int i = 0;
+        for (int bound = INTS.loopBound(a.length); i < bound; i += INTS.length()) {
+            IntVector v = IntVector.fromArray(INTS, a, i);
+            for (int part = 0; part < parts; part++) {
+                acc = acc.add((LongVector) v.convertShape(VectorOperators.I2L, LONGS, part));
+            }
+        }
+        long s = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            s += a[i];
+        }
+        return s;
+    }
+
+    // lane-wise sums that count their wraps like ScalarSum.total(long[]): the sign test finds the lanes
+    // that went past MAX or MIN, the sign of v says which way. The lanes and the tail are then combined
+    // the same way, so this throws exactly when the true total does not fit, like the scalar kernel.
+    public long total(long[] a) {
+        LongVector acc = LongVector.zero(LONGS);
+        LongVector wraps = LongVector.zero(LONGS);
+        int i = 0;
+        for (int bound = LONGS.loopBound(a.length); i < bound; i += LONGS.length()) {
+            LongVector v = LongVector.fromArray(LONGS, a, i);
+            LongVector sum = acc.add(v);
+            LongVector wrapped = acc.lanewise(VectorOperators.XOR, sum).and(v.lanewise(VectorOperators.XOR, sum))
+                    .lanewise(VectorOperators.ASHR, 63); // -1 in lanes that wrapped, 0 elsewhere
+            LongVector direction = v.lanewise(VectorOperators.ASHR, 63).or(1); // -1 or +1
+            wraps = wraps.add(wrapped.and(direction));
+            acc = sum;
+        }
+        long s = 0;
+        long w = wraps.reduceLanes(VectorOperators.ADD);
+        for (int lane = 0; lane < LONGS.length(); lane++) {
+            long v = acc.lane(lane);
+            long r = s + v;
+            w += ScalarSum.wrapped(s, v, r);
+            s = r;
+        }
+        for (; i < a.length; i++) {
+            long r = s + a[i];
+            w += ScalarSum.wrapped(s, a[i], r);
+            s = r;
+        }
+        return ScalarSum.exact(s, w);
+    }
+}
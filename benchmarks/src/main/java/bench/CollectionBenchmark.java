@@ -0,0 +1,139 @@
+package bench;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The student -> score map and the number set of 05_day/02_code: ObjIntMap<String> from Map6.java and
+// IntHashSet from Sets5.java, next to the HashMap<String, Integer> / HashSet<Integer> they replaced as
+// the baseline. Build benchmarks include growing the table from empty; lookup benchmarks probe a
+// prebuilt table with a mix of present and absent keys.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectionBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    int size;
+
+    String[] names;
+    String[] probes;
+    int[] scores;
+    int[] numbers;
+    ObjIntMap<String> students;
+    Map<String, Integer> boxedStudents;
+    IntHashSet nums;
+    Set<Integer> boxedNums;
+
+    @Setup
+    public void setup() {
+        Random r = new Random(5);
+        names = new String[size];
+        probes = new String[size];
+        scores = new int[size];
+        numbers = new int[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = "student" + r.nextInt(size); // some repeats, like put("random", ...) twice in Map6
+            probes[i] = "student" + r.nextInt(size * 2); // about half of the probes miss
+            scores[i] = r.nextInt(100);
+            numbers[i] = r.nextInt(size * 2);
+        }
+        students = buildObjIntMap();
+        boxedStudents = buildHashMap();
+        nums = buildIntHashSet();
+        boxedNums = buildHashSet();
+    }
+
+    @Benchmark
+    public ObjIntMap<String> buildObjIntMap() {
+        ObjIntMap<String> m = new ObjIntMap<>();
+        for (int i = 0; i < size; i++) {
+            m.put(names[i], scores[i]);
+        }
+        return m;
+    }
+
+    @Benchmark
+    public long objIntMapGet() {
+        long sum = 0;
+        for (String name : probes) {
+            sum += students.getOrDefault(name, -1);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Map<String, Integer> buildHashMap() {
+        Map<String, Integer> m = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            m.put(names[i], scores[i]);
+        }
+        return m;
+    }
+
+    @Benchmark
+    public long hashMapGet() {
+        long sum = 0;
+        for (String name : probes) {
+            sum += boxedStudents.getOrDefault(name, -1);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public IntHashSet buildIntHashSet() {
+        IntHashSet s = new IntHashSet();
+        for (int n : numbers) {
+            s.add(n);
+        }
+        return s;
+    }
+
+    @Benchmark
+    public int intHashSetContains() {
+        int hits = 0;
+        for (int i = 0; i < size; i++) {
+            if (nums.contains(i)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public Set<Integer> buildHashSet() {
+        Set<Integer> s = new HashSet<>();
+        for (int n : numbers) {
+            s.add(n);
+        }
+        return s;
+    }
+
+    @Benchmark
+    public int hashSetContains() {
+        int hits = 0;
+        for (int i = 0; i < size; i++) {
+            if (boxedNums.contains(i)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,58 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Counter.increment() from 05_day/02_code/RaceCondition3.java, every strategy hammered by all cores at
+// once (-t to change the thread count). BatchingCounter keeps up to 1023 increments per thread that are
+// never flushed here, only increment() is measured.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class CounterBenchmark {
+    @Param({ "synchronized", "atomic", "striped", "batching" })
+    String strategy;
+
+    Counter counter;
+
+    @Setup
+    public void setup() {
+        switch (strategy) {
+            case "synchronized":
+                counter = new SynchronizedCounter();
+                break;
+            case "atomic":
+                counter = new AtomicCounter();
+                break;
+            case "striped":
+                counter = new StripedCounter();
+                break;
+            case "batching":
+                counter = new BatchingCounter(1024);
+                break;
+            default:
+                throw new IllegalArgumentException("unknown strategy: " + strategy);
+        }
+    }
+
+    @Benchmark
+    public void increment() {
+        counter.increment();
+    }
+}
@@ -0,0 +1,91 @@
+package bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Calls through the hierarchies of 03_day/02_code/DynamicMethodDispatch5.java (Computer/laptop) and
+// 07_oops_day/02_code/Polymorphism2.java (Shapes/Circle/Cube2). receivers picks how many concrete
+// classes show up at the call site: 1 is monomorphic, 2 bimorphic, 3 megamorphic. Results are per call.
+// area() and show() print their text, so System.out is swapped for a stream that drops everything
+// while the benchmark runs and most of their time is the println; the overloaded area(int, int) does
+// no I/O. InlineCacheBenchmark measures the dispatch alone on the same hierarchy shapes.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+    static final int CALLS = 1024;
+
+    @Param({ "1", "2", "3" })
+    int receivers;
+
+    Shapes[] shapes;
+    Computer[] computers;
+    PrintStream out;
+
+    @Setup
+    public void setup() {
+        Random r = new Random(2);
+        shapes = new Shapes[CALLS];
+        computers = new Computer[CALLS];
+        for (int i = 0; i < CALLS; i++) {
+            int kind = r.nextInt(receivers);
+            shapes[i] = kind == 0 ? new Circle() : kind == 1 ? new Cube2() : new Shapes();
+            computers[i] = kind == 0 ? new laptop() : new Computer();
+        }
+        out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void restoreOut() {
+        System.setOut(out);
+    }
+
+    // overridden in both subclasses, the call site sees as many targets as receivers
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public void shapesArea() {
+        for (Shapes s : shapes) {
+            s.area();
+        }
+    }
+
+    // overloaded, not overridden: every receiver runs Shapes.area(int, int)
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public int shapesOverload() {
+        int n = 0;
+        for (int i = 0; i < CALLS; i++) {
+            n += shapes[i].area(i, 3);
+        }
+        return n;
+    }
+
+    // laptop inherits show(), so there is only one target however many receiver classes there are
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public void computerShow() {
+        for (Computer c : computers) {
+            c.show();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// What one call costs at a call site that has seen one (monomorphic), two (bimorphic) or three
+// (megamorphic) receiver classes. HotSpot records the receiver types per call site: with one or two it
+// inlines those targets behind a class check, with more it falls back to a vtable/itable call that
+// cannot be inlined. The classes below model Polymorphism2's Shapes/Circle/Cube2 and
+// DynamicMethodDispatch5's Computer/laptop with methods that return their text: the course versions
+// print, and the println would hide the call itself (DispatchBenchmark runs those as they are).
+// The same three shapes are dispatched five ways:
+//   virtual      ShapeModel/CircleModel/CubeModel, overridden area() through a ShapeModel reference
+//   finals       the same, but the leaf classes are final (does final help a polymorphic site?)
+//   sealed       through a sealed interface
+//   patterns     instanceof pattern chain over the sealed types; the JDK 17 stand-in for a pattern
+//                switch, which is still a preview feature there
+//   computerShow ComputerModel.show(), which LaptopModel never overrides and DesktopModel does
+// InliningReport runs this class with the JIT's inlining log turned on and reports which calls were inlined.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InlineCacheBenchmark {
+    static final int CALLS = 1024;
+
+    @Param({ "mono", "bi", "mega" })
+    String site;
+
+    ShapeModel[] shapes;
+    ShapeModel[] finals;
+    SealedShape[] sealed;
+    ComputerModel[] computers;
+
+    @Setup
+    public void setup() {
+        int kinds = site.equals("mono") ? 1 : site.equals("bi") ? 2 : 3;
+        Random r = new Random(23);
+        shapes = new ShapeModel[CALLS];
+        finals = new ShapeModel[CALLS];
+        sealed = new SealedShape[CALLS];
+        computers = new ComputerModel[CALLS];
+        for (int i = 0; i < CALLS; i++) {
+            int kind = r.nextInt(kinds);
+            shapes[i] = kind == 0 ? new CircleModel() : kind == 1 ? new CubeModel() : new ShapeModel();
+            finals[i] = kind == 0 ? new FinalCircle() : kind == 1 ? new FinalCube() : new ShapeModel();
+            sealed[i] = kind == 0 ? new SealedCircle() : kind == 1 ? new SealedCube() : new SealedPlain();
+            computers[i] = kind == 0 ? new LaptopModel() : kind == 1 ? new ComputerModel() : new DesktopModel();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public int virtual() {
+        int n = 0;
+        for (ShapeModel s : shapes) {
+            n += s.area().length();
+        }
+        return n;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public int finals() {
+        int n = 0;
+        for (ShapeModel s : finals) {
+            n += s.area().length();
+        }
+        return n;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public int sealed() {
+        int n = 0;
+        for (SealedShape s : sealed) {
+            n += s.area().length();
+        }
+        return n;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public int patterns() {
+        int n = 0;
+        for (SealedShape s : sealed) {
+            String area;
+            if (s instanceof SealedCircle c) {
+                area = c.area();
+            } else if (s instanceof SealedCube c) {
+                area = c.area();
+            } else if (s instanceof SealedPlain p) {
+                area = p.area();
+            } else {
+                throw new IllegalStateException("unknown shape " + s);
+            }
+            n += area.length();
+        }
+        return n;
+    }
+
+    // DesktopModel overrides show() and LaptopModel does not, so mono has one target, bi still one, mega two
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public int computerShow() {
+        int n = 0;
+        for (ComputerModel c : computers) {
+            n += c.show().length();
+        }
+        return n;
+    }
+}
+
+class ShapeModel {
+    public String area() {
+        return "Every shape has its own area";
+    }
+}
+
+class CircleModel extends ShapeModel {
+    public String area() {
+        return "The area of circle is: pie*r*r";
+    }
+}
+
+class CubeModel extends ShapeModel {
+    public String area() {
+        return "The area of cube is: l*w*h";
+    }
+}
+
+final class FinalCircle extends ShapeModel {
+    public String area() {
+        return "The area of circle is: pie*r*r";
+    }
+}
+
+final class FinalCube extends ShapeModel {
+    public String area() {
+        return "The area of cube is: l*w*h";
+    }
+}
+
+sealed interface SealedShape permits SealedCircle, SealedCube, SealedPlain {
+    String area();
+}
+
+final class SealedCircle implements SealedShape {
+    public String area() {
+        return "The area of circle is: pie*r*r";
+    }
+}
+
+final class SealedCube implements SealedShape {
+    public String area() {
+        return "The area of cube is: l*w*h";
+    }
+}
+
+final class SealedPlain implements SealedShape {
+    public String area() {
+        return "Every shape has its own area";
+    }
+}
+
+class ComputerModel {
+    String show() {
+        return "Processor";
+    }
+}
+
+class LaptopModel extends ComputerModel {
+}
+
+class DesktopModel extends ComputerModel {
+    String show() {
+        return "Processor, tower case";
+    }
+}
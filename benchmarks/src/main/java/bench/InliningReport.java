@@ -0,0 +1,97 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+// Runs every InlineCacheBenchmark method at every call-site shape in its own JVM with
+// -XX:+PrintCompilation -XX:+PrintInlining written to a log file, then prints ns/call next to what the
+// JIT decided for the area()/show() calls:
+//   java -cp target/benchmarks.jar bench.InliningReport [quick]
+// "quick" shortens warmup and measurement to a few hundred ms, enough to see the inlining decisions.
+public class InliningReport {
+    static final String[] METHODS = { "virtual", "finals", "sealed", "patterns", "computerShow" };
+    static final String[] SITES = { "mono", "bi", "mega" };
+
+    // "   1234  567 %     4       bench.jmh_generated.X::y (57 bytes)" -- tier is the last number before the name
+    static final Pattern COMPILE = Pattern.compile("^\\s*\\d+\\s+\\d+\\s+[%sbn! ]*(\\d)\\s+(\\S+::\\S+)");
+    // "        @ 28   bench.Circle::area (3 bytes)   inline (hot)"
+    static final Pattern INLINE = Pattern.compile("@\\s+\\d+\\s+bench\\.(\\w+)::(area|show) \\(\\d+ bytes\\)\\s+(.*)$");
+
+    public static void main(String[] args) throws Exception {
+        boolean quick = args.length > 0 && args[0].equals("quick");
+        System.out.printf("%-12s %-5s %9s   %s%n", "benchmark", "site", "ns/call", "JIT decision for the call (last C2 compile)");
+        for (String method : METHODS) {
+            for (String site : SITES) {
+                Path log = Files.createTempFile("inlining-" + method + "-" + site, ".log");
+                try {
+                    OptionsBuilder options = new OptionsBuilder();
+                    options.include(InlineCacheBenchmark.class.getName() + "." + method + "$")
+                            .param("site", site)
+                            .forks(1)
+                            .verbosity(VerboseMode.SILENT)
+                            .jvmArgsAppend("-XX:+UnlockDiagnosticVMOptions", "-XX:+PrintCompilation", "-XX:+PrintInlining",
+                                    "-XX:+LogVMOutput", "-XX:-DisplayVMOutput", "-XX:LogFile=" + log);
+                    if (quick) {
+                        options.warmupIterations(2).warmupTime(TimeValue.milliseconds(300))
+                                .measurementIterations(2).measurementTime(TimeValue.milliseconds(300));
+                    }
+                    Options opts = options.build();
+                    RunResult result = new Runner(opts).runSingle();
+                    System.out.printf("%-12s %-5s %9.3f   %s%n", method, site, result.getPrimaryResult().getScore(), decisions(log));
+                } finally {
+                    Files.deleteIfExists(log);
+                }
+            }
+        }
+    }
+
+    // Callee -> decision, taken from the inlining trees printed under C2 (tier 4) compiles of the
+    // benchmark. A later compile replaces an earlier one, so what is left is what the final code does.
+    static String decisions(Path log) throws IOException {
+        Map<String, String> last = new LinkedHashMap<>();
+        Map<String, String> current = new LinkedHashMap<>();
+        boolean inBenchmarkC2 = false;
+        List<String> lines = Files.readAllLines(log);
+        for (String line : lines) {
+            if (line.contains("made not entrant") || line.contains("made zombie")) {
+                continue; // events about older code, the inlining tree of the running compile can follow them
+            }
+            Matcher c = COMPILE.matcher(line);
+            if (c.find()) {
+                if (inBenchmarkC2 && !current.isEmpty()) {
+                    last = current;
+                }
+                current = new LinkedHashMap<>();
+                inBenchmarkC2 = c.group(1).equals("4") && c.group(2).contains("InlineCacheBenchmark");
+                continue;
+            }
+            Matcher m = INLINE.matcher(line);
+            if (inBenchmarkC2 && m.find()) {
+                current.put(m.group(1) + "::" + m.group(2), m.group(3).trim());
+            }
+        }
+        if (inBenchmarkC2 && !current.isEmpty()) {
+            last = current;
+        }
+        if (last.isEmpty()) {
+            return "(no C2 compile of the benchmark loop in the log)";
+        }
+        StringJoiner out = new StringJoiner(", ");
+        last.forEach((callee, decision) -> out.add(callee + " " + decision));
+        return out.toString();
+    }
+}
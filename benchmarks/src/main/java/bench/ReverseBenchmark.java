@@ -0,0 +1,56 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// StringReverser.reverse from Small_Assignments/ReverseString4.java, with the split("") + += loop
+// ReverseString4 had before as the baseline (quadratic, kept to show the gap).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReverseBenchmark {
+    @Param({ "16", "256", "4096" })
+    int length;
+
+    String s;
+
+    @Setup
+    public void setup() {
+        Random r = new Random(4);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + r.nextInt(26)));
+        }
+        s = sb.toString();
+    }
+
+    @Benchmark
+    public String splitAndConcat() {
+        String[] sArr = s.split("");
+        String revString = "";
+        for (int i = sArr.length - 1; i >= 0; i--) {
+            revString += sArr[i];
+        }
+        return revString;
+    }
+
+    @Benchmark
+    public String reverse() {
+        return StringReverser.reverse(s);
+    }
+}
@@ -0,0 +1,77 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The last-digit ordering: Sorting7.sortByLastDigit (Collections.sort with a comparator) from
+// 05_day/02_code/Sorting7.java and IntSorts.sortByLastDigit (counting sort on int[]) from
+// 05_day/02_code/RadixSort12.java, with a natural-order Collections.sort of the same data as the
+// baseline. Every invocation sorts a fresh unsorted copy (made in the untimed per-invocation setup),
+// so sizes below ~10k are dominated by JMH's own overhead.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortBenchmark {
+    @Param({ "10000", "100000", "1000000" })
+    int size;
+
+    Integer[] source;
+    int[] primitiveSource;
+    List<Integer> list;
+    int[] array;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        Random r = new Random(7);
+        source = new Integer[size];
+        primitiveSource = new int[size];
+        for (int i = 0; i < size; i++) {
+            primitiveSource[i] = r.nextInt(1000);
+            source[i] = primitiveSource[i];
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        list = new ArrayList<>(Arrays.asList(source));
+        array = primitiveSource.clone();
+    }
+
+    @Benchmark
+    public List<Integer> sortByLastDigit() {
+        Sorting7.sortByLastDigit(list);
+        return list;
+    }
+
+    @Benchmark
+    public int[] countingSortByLastDigit() {
+        IntSorts.sortByLastDigit(array, false);
+        return array;
+    }
+
+    @Benchmark
+    public List<Integer> sortNatural() {
+        Collections.sort(list);
+        return list;
+    }
+}
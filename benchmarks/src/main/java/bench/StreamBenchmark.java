@@ -0,0 +1,59 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The filter/map/reduce pipeline (odd numbers, doubled, multiplied together; the int product wraps):
+// Stream7.oddDoubledProduct on a boxed List<Integer> from 05_day/02_code/Stream7.java, and
+// PrimitivePipeline.intProduct from 05_day/02_code/IntStream9.java, the same pipeline on int[].
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    int size;
+
+    List<Integer> list;
+    int[] array;
+
+    @Setup
+    public void setup() {
+        list = new ArrayList<>(size);
+        array = new int[size];
+        for (int i = 0; i < size; i++) {
+            list.add(i + 1);
+            array[i] = i + 1;
+        }
+    }
+
+    @Benchmark
+    public int boxedPipeline() {
+        return Stream7.oddDoubledProduct(list);
+    }
+
+    @Benchmark
+    public int primitivePipeline() {
+        return PrimitivePipeline.intProduct(array, false);
+    }
+
+    @Benchmark
+    public int primitivePipelineParallel() {
+        return PrimitivePipeline.intProduct(array, true);
+    }
+}